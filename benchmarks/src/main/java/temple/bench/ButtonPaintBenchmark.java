@@ -0,0 +1,82 @@
+package temple.bench;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import temple.RoundedBackgroundCache;
+import temple.RoundedButton;
+
+/** Painting a themed temple button into an offscreen image. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class ButtonPaintBenchmark {
+    private static final int WIDTH = 240;
+    private static final int HEIGHT = 60;
+    private static final Color PERU = new Color(205, 133, 63);
+
+    private final BufferedImage canvas = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_ARGB);
+    private final RoundedBackgroundCache cache = new RoundedBackgroundCache(16);
+    private Graphics2D g;
+    private RoundedButton button;
+
+    @Setup
+    public void setUp() {
+        g = canvas.createGraphics();
+        button = new RoundedButton("Enter the Temple", PERU, cache);
+        button.setFont(new Font("Georgia", Font.BOLD, 20));
+        button.setForeground(Color.WHITE);
+        button.setBorderPainted(false);
+        button.setFocusPainted(false);
+        button.setOpaque(false);
+        button.setContentAreaFilled(false);
+        button.setSize(WIDTH, HEIGHT);
+    }
+
+    @TearDown
+    public void tearDown() {
+        g.dispose();
+    }
+
+    // What the original anonymous JButton subclass did on every paint.
+    @Benchmark
+    public BufferedImage backgroundRasterized() {
+        Graphics2D g2 = (Graphics2D) g.create();
+        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2.setColor(PERU);
+        g2.fillRoundRect(0, 0, WIDTH, HEIGHT, RoundedButton.ARC, RoundedButton.ARC);
+        g2.dispose();
+        return canvas;
+    }
+
+    @Benchmark
+    public BufferedImage backgroundCached() {
+        cache.paint(g, WIDTH, HEIGHT, PERU, RoundedButton.ARC);
+        return canvas;
+    }
+
+    @Benchmark
+    public BufferedImage wholeButton() {
+        button.paint(g);
+        return canvas;
+    }
+}
@@ -0,0 +1,63 @@
+package temple.bench;
+
+import java.awt.Dimension;
+import java.awt.Font;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.JLabel;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import temple.TextBlock;
+
+/**
+ * Setting the end-of-game message and measuring it for layout, as switching
+ * to the Feedback card does: an HTML label against a {@link TextBlock}. The
+ * treasure value cycles through a few scores, like successive games.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class FeedbackTextBenchmark {
+    private static final String MESSAGE = "The ancient door creaks open, revealing the treasure chamber!";
+    private static final int[] SCORES = {600, 550, 430, 310, 120};
+
+    private final Font font = new Font(Font.SERIF, Font.BOLD, 28);
+    private JLabel label;
+    private TextBlock block;
+    private int game;
+
+    @Setup
+    public void setUp() {
+        label = new JLabel();
+        label.setFont(font);
+        block = new TextBlock();
+        block.setFont(font);
+    }
+
+    @Benchmark
+    public Dimension htmlLabel() {
+        int score = SCORES[game++ % SCORES.length];
+        label.setText("<html><center>" + MESSAGE + "<br>You have triumphed! Treasure value: " + score + "</center></html>");
+        return label.getPreferredSize();
+    }
+
+    @Benchmark
+    public Dimension textBlock() {
+        int score = SCORES[game++ % SCORES.length];
+        block.setText(MESSAGE, "You have triumphed! Treasure value: " + score);
+        return block.getPreferredSize();
+    }
+}
@@ -0,0 +1,83 @@
+package temple.bench;
+
+import java.awt.Font;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.JButton;
+import javax.swing.JComponent;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import temple.FontScaler;
+
+/**
+ * getScaledFont() and the resize walk in updateComponentFontSizes(): the
+ * original allocate-per-call versions against FontScaler.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class FontBenchmark {
+    private static final int COMPONENTS = 60;
+
+    private final FontScaler scaler = new FontScaler("Georgia");
+    private final JPanel legacyTree = new JPanel();
+    private final JPanel scaledTree = new JPanel();
+    private boolean larger;
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < COMPONENTS; i++) {
+            JComponent legacy = i % 4 == 0 ? new JButton("Offer") : new JLabel("Torches remaining: 4");
+            legacy.setFont(new Font("Georgia", Font.BOLD, 24));
+            legacyTree.add(legacy);
+            JComponent scaled = i % 4 == 0 ? new JButton("Offer") : new JLabel("Torches remaining: 4");
+            scaledTree.add(scaler.apply(scaled, Font.BOLD, 24));
+        }
+    }
+
+    @Benchmark
+    public Font newFontPerCall() {
+        return new Font("Georgia", Font.BOLD, (int) (24 * 1.25f));
+    }
+
+    @Benchmark
+    public Font cachedFont() {
+        return scaler.font(Font.BOLD, 24);
+    }
+
+    // The original walk: derive from the current font, alternating between two
+    // window sizes so the sizes stay bounded instead of compounding forever.
+    @Benchmark
+    public JPanel deriveFontWalk() {
+        larger = !larger;
+        float multiplier = larger ? 1.25f : 0.8f;
+        for (int i = 0; i < legacyTree.getComponentCount(); i++) {
+            JComponent comp = (JComponent) legacyTree.getComponent(i);
+            Font font = comp.getFont();
+            comp.setFont(font.deriveFont(font.getStyle(), font.getSize2D() * multiplier));
+        }
+        return legacyTree;
+    }
+
+    @Benchmark
+    public JPanel cachedRescale() {
+        larger = !larger;
+        scaler.rescale(scaledTree, larger ? 1.25f : 0.8f);
+        return scaledTree;
+    }
+}
@@ -0,0 +1,92 @@
+package temple.bench;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import temple.Difficulty;
+import temple.GameSession;
+import temple.GuessParser;
+import temple.SecretRange;
+import temple.SessionBatch;
+
+/**
+ * Guess evaluation as makeGuess() performs it: parse the offering, then apply
+ * the rules. The batch variant reports the cost per guess of one SessionBatch pass.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class GuessBenchmark {
+    private static final int OFFERINGS = 1024;
+
+    private final GameSession session = new GameSession();
+    private final SplittableRandom random = new SplittableRandom(42);
+    private final int[] offerings = new int[OFFERINGS];
+    private final String[] typed = new String[OFFERINGS];
+    private final GuessParser parser = new GuessParser();
+    private final SessionBatch batch = new SessionBatch(OFFERINGS, SecretRange.CLASSIC);
+    private final long[] batchOfferings = new long[OFFERINGS];
+    private final long[] batchNanos = new long[OFFERINGS];
+    private final byte[] outcomes = new byte[OFFERINGS];
+    private int next;
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < OFFERINGS; i++) {
+            offerings[i] = random.nextInt(GameSession.MIN_NUMBER, GameSession.MAX_NUMBER + 1);
+            typed[i] = Integer.toString(offerings[i]);
+            batchOfferings[i] = offerings[i];
+        }
+    }
+
+    @Benchmark
+    public GameSession.Outcome evaluate() {
+        if (!session.isPlaying()) {
+            session.start(Difficulty.MEDIUM, random, 0L);
+        }
+        return session.guess(offerings[next++ & (OFFERINGS - 1)], 0L);
+    }
+
+    @Benchmark
+    public GameSession.Outcome parseAndEvaluate() {
+        if (!session.isPlaying()) {
+            session.start(Difficulty.MEDIUM, random, 0L);
+        }
+        return session.guess(Integer.parseInt(typed[next++ & (OFFERINGS - 1)]), 0L);
+    }
+
+    @Benchmark
+    public GameSession.Outcome parseWithoutAllocating() {
+        if (!session.isPlaying()) {
+            session.start(Difficulty.MEDIUM, random, 0L);
+        }
+        parser.parse(typed[next++ & (OFFERINGS - 1)]);
+        return session.guess(parser.value(), 0L);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OFFERINGS)
+    public int evaluateBatch() {
+        for (int i = 0; i < OFFERINGS; i++) {
+            if (!batch.isPlaying(i)) {
+                batch.start(i, Difficulty.MEDIUM, random.nextLong(), 0L);
+            }
+        }
+        return batch.evaluate(0, OFFERINGS, batchOfferings, batchNanos, outcomes);
+    }
+}
@@ -0,0 +1,78 @@
+package temple.bench;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import temple.GameSession;
+import temple.Leaderboard;
+
+/**
+ * Recording a win on a hall that already holds {@code recorded} scores: the
+ * original ArrayList-plus-full-sort against the bounded top-K leaderboard.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class LeaderboardBenchmark {
+    @Param({"1000", "100000"})
+    public int recorded;
+
+    private final SplittableRandom random = new SplittableRandom(7);
+    private ArrayList<Integer> recordedList;
+    private ArrayList<Integer> sortedList;
+    private Leaderboard leaderboard;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        recordedList = new ArrayList<>();
+        leaderboard = new Leaderboard(10, GameSession.MAX_SCORE);
+        for (int i = 0; i < recorded; i++) {
+            int score = nextScore();
+            recordedList.add(score);
+            leaderboard.add(score);
+        }
+        Collections.sort(recordedList, Collections.reverseOrder());
+    }
+
+    // Every call starts from exactly recorded scores; otherwise the list grows by one per call.
+    @Setup(Level.Invocation)
+    public void resetList() {
+        sortedList = new ArrayList<>(recordedList);
+    }
+
+    private int nextScore() {
+        return random.nextInt(GameSession.MAX_SCORE / GameSession.POINTS_PER_SECOND + 1) * GameSession.POINTS_PER_SECOND;
+    }
+
+    @Benchmark
+    public int arrayListSort() {
+        sortedList.add(nextScore());
+        Collections.sort(sortedList, Collections.reverseOrder());
+        return sortedList.get(0);
+    }
+
+    @Benchmark
+    public long topK() {
+        int score = nextScore();
+        leaderboard.add(score);
+        return leaderboard.rank(score);
+    }
+}
@@ -0,0 +1,50 @@
+package temple.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import temple.LeaderboardText;
+
+/**
+ * The leaderboard message for a full top-ten hall: the HTML that
+ * showLeaderboard() used to build for the dialog to parse, against the plain
+ * lines it now hands to a TextBlock.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class LeaderboardHtmlBenchmark {
+    private final int[] topScores = {600, 590, 550, 540, 500, 450, 430, 400, 310, 120};
+
+    @Benchmark
+    public String html() {
+        return html(topScores);
+    }
+
+    @Benchmark
+    public String[] lines() {
+        return LeaderboardText.lines(topScores);
+    }
+
+    // The dialog's old message, kept here as the baseline.
+    private static String html(int[] topScores) {
+        StringBuilder leaderboardText = new StringBuilder("<html><center><h2>" + LeaderboardText.TITLE + "</h2><br>");
+        for (int i = 0; i < topScores.length; i++) {
+            leaderboardText.append((i + 1)).append(". ").append(topScores[i]).append("<br>");
+        }
+        leaderboardText.append("</center></html>");
+        return leaderboardText.toString();
+    }
+}
@@ -0,0 +1,926 @@
+import java.awt.CardLayout;
+import java.awt.Color;
+import java.awt.Cursor;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.Graphics;
+import java.awt.GridBagConstraints;
+import java.awt.GridBagLayout;
+import java.awt.Insets;
+import java.awt.Toolkit;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
+import java.awt.event.InputEvent;
+import java.awt.event.KeyEvent;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.BorderFactory;
+import javax.swing.AbstractAction;
+import javax.swing.JButton;
+import javax.swing.JComponent;
+import javax.swing.JComboBox;
+import javax.swing.JFrame;
+import javax.swing.JLabel;
+import javax.swing.JOptionPane;
+import javax.swing.JPanel;
+import javax.swing.JTextField;
+import javax.swing.JToggleButton;
+import javax.swing.KeyStroke;
+import javax.swing.SwingConstants;
+import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
+import javax.swing.Timer;
+import javax.swing.UIManager;
+import javax.swing.border.EmptyBorder;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.text.AbstractDocument;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
+import javax.swing.text.Segment;
+
+import temple.Difficulty;
+import temple.EdtMonitor;
+import temple.FontScaler;
+import temple.GameEvents;
+import temple.GameHud;
+import temple.GameMetrics;
+import temple.GuessParser;
+import temple.GameSession;
+import temple.GossipNode;
+import temple.Leaderboard;
+import temple.LeaderboardText;
+import temple.OfferingFilter;
+import temple.ParkedSessionStore;
+import temple.RoundedBackgroundCache;
+import temple.RoundedButton;
+import temple.ScoreStore;
+import temple.SecretRange;
+import temple.Seeds;
+import temple.SessionRecorder;
+import temple.StartupProfile;
+import temple.TextBlock;
+import temple.TextLayoutCache;
+import temple.ThemePalette;
+import temple.ThemeRegistry;
+import temple.ThemeRegistry.Role;
+import temple.TimingWheel;
+
+public class EnhancedGuessingGame extends JFrame {
+    private final GameSession session = new GameSession();
+    private static final long DEBOUNCE_NANOS = TimeUnit.MILLISECONDS.toNanos(150);
+    private static final int MAX_UNSAVED_SCORES = 1024;
+    private final Timer timer = new Timer(16, new TimerListener()); // display refresh only, about 60 fps
+    private TimingWheel deadlines; // started with the first game, not before the first frame
+    private TimingWheel.Timeout deadline;
+    private final SecretRange range = SecretRange.configured();
+    private final GuessParser guessParser = new GuessParser();
+    private final Segment guessText = new Segment();
+    private String rangeWarning;
+    private boolean submitQueued;
+    private int game;
+    private int queuedGame;
+    private long lastOfferingNanos;
+    private ParkedSessionStore parkedSessions; // made by the first park
+    private long parkedHandle = ParkedSessionStore.NO_HANDLE;
+    // Opened by the first game; flushed on the score writer at the end of each game, not on the EDT.
+    private SessionRecorder recorder;
+    private long sessionId;
+    private Timer countdownTimer;
+    private int countdown;
+    private final EdtMonitor edtMonitor = new EdtMonitor(100, 250);
+    private final GameMetrics metrics = GameMetrics.shared();
+    private String currentCard = "Welcome";
+    private long lastTickNanos;
+    private int highScore;
+    private Difficulty difficulty = Difficulty.MEDIUM;
+
+    private GameHud hud;
+    private JLabel hintLabel;
+    private JLabel previousGuessLabel;
+    private JLabel guardianLabel;
+    private JTextField guessField;
+    private JButton guessButton;
+    private JLabel highScoreLabel;
+    private TextBlock storyText;
+
+    private JPanel welcomePanel;
+    private JPanel gamePanel;
+    private JPanel countdownPanel;
+    private JPanel feedbackPanel;
+    private TextBlock feedbackText;
+    private JButton retryButton;
+    private JButton quitButton;
+    private JButton leaderboardButton;
+
+    private final FontScaler fonts = new FontScaler("Georgia");
+    private Timer resizeTimer;
+
+    // Button colors (Temple Theme); everything else comes from the ThemePalette
+    private Color buttonColor = new Color(205, 133, 63); // Peru
+    private Color retryButtonColor = new Color(160, 82, 45); // Sienna
+    private Color guessButtonColor = new Color(218, 165, 32); // Goldenrod
+
+    private boolean isDarkMode = false;
+    private final ThemeRegistry theme = new ThemeRegistry(ThemePalette.LIGHT, "Welcome");
+    private JToggleButton themeToggle;
+
+    private final Leaderboard leaderboard = new Leaderboard(10, GameSession.MAX_SCORE);
+    private ScoreStore scoreStore; // null until loaded, or if the data directory is unusable
+    // Appends can force pages to disk or compact the log, so they never run on the EDT;
+    // the session log is flushed here too.
+    private final ExecutorService scoreWriter = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "score-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private GossipNode gossip; // null unless the hall is shared with other kiosks
+    // Wins made while the history is still loading; bounded, since the in-memory leaderboard already has them.
+    private final List<Integer> unsavedScores = new ArrayList<>();
+    private boolean scoreHistoryUnavailable;
+
+    private TextBlock scoreResultText;
+
+    public EnhancedGuessingGame() {
+        setTitle("The Treasure of the Forgotten Temple");
+        setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        setLayout(new CardLayout());
+
+        createThemeToggle();
+        highScore = 0;
+
+        // Only the welcome card is needed for the first frame; the rest are built on first use.
+        createWelcomePanel();
+        add(welcomePanel, "Welcome");
+        StartupProfile.mark("welcome card built");
+
+        Dimension screenSize = Toolkit.getDefaultToolkit().getScreenSize();
+        int width = (int) (screenSize.width * 0.8);
+        int height = (int) (screenSize.height * 0.8);
+        setSize(width, height);
+
+        // A drag fires a stream of resize events; only relayout once the size settles.
+        resizeTimer = new Timer(120, e -> updateFontSizes());
+        resizeTimer.setRepeats(false);
+        addComponentListener(new ComponentAdapter() {
+            public void componentResized(ComponentEvent e) {
+                resizeTimer.restart();
+            }
+        });
+
+        // A player who minimises the kiosk has walked away: stop their clock until they return.
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowIconified(WindowEvent e) {
+                parkSession();
+            }
+
+            @Override
+            public void windowDeiconified(WindowEvent e) {
+                resumeParkedSession();
+            }
+        });
+
+        installDiagnostics();
+        loadScores();
+
+        setLocationRelativeTo(null);
+        setVisible(true);
+        StartupProfile.mark("frame shown");
+        // Probing the EDT before the first frame would only measure startup.
+        SwingUtilities.invokeLater(edtMonitor::start);
+    }
+
+    @Override
+    public void paint(Graphics g) {
+        super.paint(g);
+        if (StartupProfile.firstFrame() && StartupProfile.exitAfterFirstFrame()) {
+            SwingUtilities.invokeLater(() -> System.exit(0));
+        }
+    }
+
+    // Recovering the log happens off the EDT so it never delays the first frame.
+    private void loadScores() {
+        new SwingWorker<ScoreStore, Void>() {
+            @Override
+            protected ScoreStore doInBackground() throws IOException {
+                return ScoreStore.open(ScoreStore.defaultDirectory(), GameSession.MAX_SCORE);
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    scoreStore = get();
+                } catch (InterruptedException | ExecutionException e) {
+                    System.err.println("Score history unavailable: " + e.getCause());
+                    scoreHistoryUnavailable = true;
+                    unsavedScores.clear();
+                    startGossip();
+                    return;
+                }
+                scoreStore.forEachScore(leaderboard::add);
+                metrics.leaderboardSize(leaderboard.size());
+                for (int score : unsavedScores) {
+                    saveScore(score);
+                }
+                unsavedScores.clear();
+                highScore = Math.max(highScore, leaderboard.best());
+                highScoreLabel.setText("Highest Score: " + highScore);
+                startGossip();
+                Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                    scoreWriter.shutdown();
+                    try {
+                        scoreWriter.awaitTermination(2, TimeUnit.SECONDS);
+                        scoreStore.close();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } catch (IOException e) {
+                        System.err.println("Could not close score history: " + e);
+                    }
+                }, "score-store-close"));
+            }
+        }.execute();
+    }
+
+    // With -Dtemple.gossip.port the Hall of Explorers is shared with the other kiosks.
+    // Started once the history is loaded, so this kiosk's past games join the hall
+    // under the same ids every run; without a history it joins as a new node.
+    private void startGossip() {
+        try {
+            gossip = GossipNode.fromProperties(scoreStore == null ? null : ScoreStore.defaultDirectory(),
+                    () -> SwingUtilities.invokeLater(this::hallChanged));
+        } catch (IOException e) {
+            System.err.println("Shared hall unavailable: " + e);
+            return;
+        }
+        if (gossip != null) {
+            if (scoreStore != null) {
+                // Behind the wins still queued for the history; seeding the same win twice is harmless.
+                GossipNode node = gossip;
+                scoreWriter.execute(() -> scoreStore.forEachScore(node::seed));
+            }
+            Thread thread = new Thread(gossip, "gossip");
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    private void hallChanged() {
+        highScore = Math.max(highScore, gossip.hall().best());
+        highScoreLabel.setText("Highest Score: " + highScore);
+    }
+
+    private void saveScore(int score) {
+        if (scoreStore == null) {
+            if (!scoreHistoryUnavailable && unsavedScores.size() < MAX_UNSAVED_SCORES) {
+                unsavedScores.add(score);
+            }
+            return;
+        }
+        ScoreStore store = scoreStore;
+        try {
+            scoreWriter.execute(() -> {
+                try {
+                    store.append(score);
+                } catch (IOException e) {
+                    System.err.println("Could not record score " + score + ": " + e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            System.err.println("Could not record score " + score + ": shutting down");
+        }
+    }
+
+    // Ctrl+Shift+D prints the EDT dispatch delay histogram and game metrics to stdout.
+    private void installDiagnostics() {
+        Thread publish = new Thread(GameMetrics::register, "metrics-register");
+        publish.setDaemon(true);
+        publish.start();
+        getRootPane().getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW)
+                .put(KeyStroke.getKeyStroke(KeyEvent.VK_D, InputEvent.CTRL_DOWN_MASK | InputEvent.SHIFT_DOWN_MASK), "dumpDiagnostics");
+        getRootPane().getActionMap().put("dumpDiagnostics", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                System.out.println(edtMonitor.dump() + " relayouts=" + fonts.relayouts());
+                System.out.println(RoundedBackgroundCache.shared().summary());
+                System.out.println(TextLayoutCache.shared().summary());
+                System.out.println(metrics.getSummary());
+            }
+        });
+    }
+
+    private void createThemeToggle() {
+        themeToggle = new JToggleButton("🌙");
+        themeToggle.addActionListener(e -> toggleTheme());
+        themeToggle.setFocusable(false);
+        themeToggle.setPreferredSize(new Dimension(40, 40));
+        fonts.apply(themeToggle, Font.PLAIN, 16);
+    }
+
+    private void toggleTheme() {
+        isDarkMode = !isDarkMode;
+        theme.switchTo(isDarkMode ? ThemePalette.DARK : ThemePalette.LIGHT);
+    }
+
+    private JButton createStyledButton(String text, Color backgroundColor) {
+        JButton button = new RoundedButton(text, backgroundColor);
+        fonts.apply(button, Font.BOLD, 20);
+        button.setForeground(Color.WHITE);
+        button.setBorderPainted(false);
+        button.setFocusPainted(false);
+        button.setCursor(new Cursor(Cursor.HAND_CURSOR));
+        button.setBorder(new EmptyBorder(10, 20, 10, 20));
+        button.setOpaque(false);
+        button.setContentAreaFilled(false);
+
+        return button;
+    }
+
+    private void createWelcomePanel() {
+        welcomePanel = new JPanel(new GridBagLayout());
+        theme.register("Welcome", welcomePanel, Role.SURFACE);
+        welcomePanel.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
+
+        JLabel welcomeLabel = new JLabel("The Treasure of the Forgotten Temple");
+        fonts.apply(welcomeLabel, Font.BOLD, 36);
+        theme.register("Welcome", welcomeLabel, Role.TEXT);
+
+        storyText = new TextBlock("Deep within the jungle lies a forgotten temple, its treasures guarded by ancient riddles. Brave adventurer, can you decipher the secret number and claim the riches within?");
+        fonts.apply(storyText, Font.PLAIN, 18);
+        theme.register("Welcome", storyText, Role.TEXT);
+
+        JButton playButton = createStyledButton("Enter the Temple", buttonColor);
+        playButton.addActionListener(e -> startCountdown());
+
+        highScoreLabel = new JLabel("Highest Score: " + highScore);
+        fonts.apply(highScoreLabel, Font.BOLD, 24);
+        theme.register("Welcome", highScoreLabel, Role.TEXT);
+
+        JComboBox<Difficulty> difficultySelector = new JComboBox<>(Difficulty.values());
+        difficultySelector.setSelectedItem(Difficulty.MEDIUM);
+        fonts.apply(difficultySelector, Font.PLAIN, 18);
+        theme.register("Welcome", difficultySelector, Role.INPUT);
+        difficultySelector.addActionListener(e -> difficulty = (Difficulty) difficultySelector.getSelectedItem());
+
+        JButton tutorialButton = createStyledButton("Read the Ancient Scroll", new Color(139, 69, 19));
+        tutorialButton.addActionListener(e -> showTutorial());
+
+        leaderboardButton = createStyledButton("Hall of Explorers", new Color(184, 134, 11));
+        leaderboardButton.addActionListener(e -> showLeaderboard());
+
+        GridBagConstraints gbc = new GridBagConstraints();
+        gbc.gridwidth = GridBagConstraints.REMAINDER;
+        gbc.fill = GridBagConstraints.HORIZONTAL;
+        gbc.insets = new Insets(10, 10, 10, 10);
+
+        gbc.gridy = 0;
+        welcomePanel.add(themeToggle, gbc);
+
+        gbc.gridy = 1;
+        welcomePanel.add(welcomeLabel, gbc);
+        gbc.gridy = 2;
+        welcomePanel.add(storyText, gbc);
+        gbc.gridy = 3;
+        welcomePanel.add(highScoreLabel, gbc);
+        gbc.gridy = 4;
+        welcomePanel.add(difficultySelector, gbc);
+        gbc.gridy = 5;
+        welcomePanel.add(playButton, gbc);
+        gbc.gridy = 6;
+        welcomePanel.add(tutorialButton, gbc);
+        gbc.gridy = 7;
+        welcomePanel.add(leaderboardButton, gbc);
+    }
+
+    private void createGamePanel() {
+        gamePanel = new JPanel(new GridBagLayout());
+        theme.register("Game", gamePanel, Role.SURFACE);
+        gamePanel.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
+
+        createComponents();
+        layoutComponents();
+    }
+
+    private void createCountdownPanel() {
+        countdownPanel = new JPanel(new GridBagLayout());
+        theme.register("Countdown", countdownPanel, Role.SURFACE);
+        countdownPanel.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
+
+        JLabel countdownLabel = new JLabel("3", SwingConstants.CENTER);
+        fonts.apply(countdownLabel, Font.BOLD, 72);
+        theme.register("Countdown", countdownLabel, Role.TEXT);
+
+        GridBagConstraints gbc = new GridBagConstraints();
+        gbc.gridx = 0;
+        gbc.gridy = 0;
+        gbc.gridwidth = GridBagConstraints.REMAINDER;
+        gbc.gridheight = GridBagConstraints.REMAINDER;
+        gbc.anchor = GridBagConstraints.CENTER;
+        countdownPanel.add(countdownLabel, gbc);
+    }
+
+    private void createFeedbackPanel() {
+        feedbackPanel = new JPanel(new GridBagLayout());
+        theme.register("Feedback", feedbackPanel, Role.SURFACE);
+        feedbackPanel.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
+
+        feedbackText = new TextBlock();
+        fonts.apply(feedbackText, Font.BOLD, 28);
+        theme.register("Feedback", feedbackText, Role.TEXT);
+
+        scoreResultText = new TextBlock();
+        fonts.apply(scoreResultText, Font.BOLD, 24);
+        theme.register("Feedback", scoreResultText, Role.TEXT);
+
+        retryButton = createStyledButton("Attempt Another Riddle", retryButtonColor);
+        retryButton.addActionListener(e -> startCountdown());
+
+        quitButton = createStyledButton("Leave the Temple", buttonColor);
+        quitButton.addActionListener(e -> showWelcomePanel());
+
+        GridBagConstraints gbc = new GridBagConstraints();
+        gbc.gridwidth = GridBagConstraints.REMAINDER;
+        gbc.fill = GridBagConstraints.HORIZONTAL;
+        gbc.insets = new Insets(10, 10, 10, 10);
+
+        gbc.gridy = 0;
+        feedbackPanel.add(new JLabel(" "), gbc);
+
+        gbc.gridy = 1;
+        feedbackPanel.add(feedbackText, gbc);
+        gbc.gridy = 2;
+        feedbackPanel.add(scoreResultText, gbc);
+        gbc.gridy = 3;
+        feedbackPanel.add(retryButton, gbc);
+        gbc.gridy = 4;
+        feedbackPanel.add(quitButton, gbc);
+    }
+
+    private void createComponents() {
+        hud = new GameHud();
+        fonts.apply(hud, Font.BOLD, 24);
+        theme.register("Game", hud, Role.SURFACE);
+        theme.register("Game", hud, Role.TEXT);
+        theme.register("Game", hud, Role.PROGRESS);
+        hud.setTorches(range.attempts());
+        hud.setTreasure(0);
+
+        hintLabel = new JLabel("Temple whispers: -");
+        fonts.apply(hintLabel, Font.PLAIN, 20);
+        theme.register("Game", hintLabel, Role.TEXT);
+
+        previousGuessLabel = new JLabel("Last offering: -");
+        fonts.apply(previousGuessLabel, Font.PLAIN, 20);
+        theme.register("Game", previousGuessLabel, Role.TEXT);
+
+        guessField = new JTextField(Math.max(5, Math.max(Long.toString(range.min()).length(), Long.toString(range.max()).length())));
+        fonts.apply(guessField, Font.PLAIN, 28);
+        guessField.setHorizontalAlignment(JTextField.CENTER);
+        theme.register("Game", guessField, Role.FRAMED_INPUT);
+        guessField.addActionListener(e -> submitOffering());
+        ((AbstractDocument) guessField.getDocument()).setDocumentFilter(new OfferingFilter(range, this::rejectKeystroke));
+        guessField.getDocument().addDocumentListener(new DocumentListener() {
+            public void insertUpdate(DocumentEvent e) {
+                checkOffering();
+            }
+
+            public void removeUpdate(DocumentEvent e) {
+                checkOffering();
+            }
+
+            public void changedUpdate(DocumentEvent e) {
+            }
+        });
+
+        // Warnings appear here while the clock keeps running, instead of in a modal dialog.
+        rangeWarning = "The temple guardian warns: 'Your offering must be between " + range.min() + " and " + range.max() + ".'";
+        guardianLabel = new JLabel(" ", SwingConstants.CENTER);
+        fonts.apply(guardianLabel, Font.PLAIN, 18);
+        guardianLabel.setForeground(ThemePalette.WARNING);
+
+        guessButton = createStyledButton("Offer", guessButtonColor);
+        guessButton.setPreferredSize(new Dimension(120, 45));
+        guessButton.addActionListener(e -> submitOffering());
+
+    }
+
+    private void layoutComponents() {
+        GridBagConstraints gbc = new GridBagConstraints();
+        gbc.insets = new Insets(10, 10, 10, 10);
+        gbc.fill = GridBagConstraints.HORIZONTAL;
+        gbc.anchor = GridBagConstraints.CENTER;
+
+        gbc.gridx = 0;
+        gbc.gridy = 0;
+        gbc.gridwidth = 2;
+        gamePanel.add(hud, gbc);
+
+        gbc.gridx = 0;
+        gbc.gridy = 1;
+        gbc.gridwidth = 1;
+        gamePanel.add(hintLabel, gbc);
+
+        gbc.gridx = 1;
+        gbc.gridy = 1;
+        gamePanel.add(previousGuessLabel, gbc);
+
+        gbc.gridx = 0;
+        gbc.gridy = 2;
+        gbc.gridwidth = 2;
+        gamePanel.add(guessField, gbc);
+
+        gbc.gridx = 0;
+        gbc.gridy = 3;
+        gbc.gridwidth = 2;
+        gamePanel.add(guardianLabel, gbc);
+
+        gbc.gridx = 0;
+        gbc.gridy = 4;
+        gbc.gridwidth = 2;
+        gamePanel.add(guessButton, gbc);
+    }
+
+    private void updateFontSizes() {
+        float multiplier = Math.min((float) getWidth() / 800, (float) getHeight() / 600);
+        if (fonts.rescale(this, multiplier)) {
+            revalidate();
+            repaint();
+        }
+    }
+
+    private void ensureCard(String name) {
+        switch (name) {
+            case "Countdown" -> {
+                if (countdownPanel == null) {
+                    createCountdownPanel();
+                    add(countdownPanel, name);
+                }
+            }
+            case "Game" -> {
+                if (gamePanel == null) {
+                    createGamePanel();
+                    add(gamePanel, name);
+                }
+            }
+            case "Feedback" -> {
+                if (feedbackPanel == null) {
+                    createFeedbackPanel();
+                    add(feedbackPanel, name);
+                }
+            }
+            default -> { }
+        }
+    }
+
+    private void showCard(String name) {
+        GameEvents.CardSwitch event = new GameEvents.CardSwitch();
+        event.begin();
+        long begin = System.nanoTime();
+        int cards = getContentPane().getComponentCount();
+        ensureCard(name);
+        theme.onShow(name);
+        CardLayout cl = (CardLayout) getContentPane().getLayout();
+        cl.show(getContentPane(), name);
+        metrics.cardSwitched(System.nanoTime() - begin);
+        if (event.shouldCommit()) {
+            event.from = currentCard;
+            event.to = name;
+            event.built = getContentPane().getComponentCount() != cards;
+            event.commit();
+        }
+        currentCard = name;
+    }
+
+    private void showWelcomePanel() {
+        showCard("Welcome");
+    }
+
+    private void startCountdown() {
+        if (countdownTimer != null && countdownTimer.isRunning()) {
+            return;
+        }
+        ensureCard("Countdown");
+        JLabel countdownLabel = (JLabel) countdownPanel.getComponent(0);
+        countdown = 3;
+        countdownLabel.setText(String.valueOf(countdown));
+
+        showCard("Countdown");
+
+        // Each step is its own EDT event, so every frame of "3, 2, 1, Begin!" is painted.
+        countdownTimer = new Timer(1000, e -> {
+            countdown--;
+            if (countdown > 0) {
+                countdownLabel.setText(String.valueOf(countdown));
+            } else if (countdown == 0) {
+                countdownLabel.setText("Begin!");
+            } else {
+                countdownTimer.stop();
+                startGame();
+            }
+        });
+        countdownTimer.start();
+    }
+
+    private void startGame() {
+        ensureCard("Game");
+        long now = System.nanoTime();
+        long seed = Seeds.next();
+        session.start(difficulty, range, seed, now);
+        game++;
+        lastOfferingNanos = now - DEBOUNCE_NANOS;
+        if (recorder == null) {
+            recorder = new SessionRecorder(SessionRecorder.defaultDirectory(), false);
+            Runtime.getRuntime().addShutdownHook(new Thread(recorder::flush, "session-recorder-flush"));
+        }
+        sessionId = recorder.recordStart(difficulty, range, seed, now);
+        metrics.sessionStarted();
+        GameEvents.SessionStart.emit(GameEvents.KIOSK, difficulty, seed);
+        lastTickNanos = now;
+
+        hud.setTorches(session.attemptsLeft());
+        hud.setTreasure(session.score());
+        hud.setTime(session.timeLeft(now), session.timeFraction(now), session.isTimeRunningOut(now));
+        hintLabel.setText("Temple whispers: -");
+        previousGuessLabel.setText("Last offering: -");
+        guessField.setText("");
+        warn(null);
+
+        scheduleDeadline();
+        showCard("Game");
+    }
+
+    // The wheel owns the deadline; the Swing timer only refreshes the display.
+    private void scheduleDeadline() {
+        if (deadline != null) {
+            deadline.cancel();
+        }
+        if (deadlines == null) {
+            deadlines = new TimingWheel(50, TimeUnit.MILLISECONDS, 512, "session-deadlines");
+        }
+        deadline = deadlines.schedule(session.deadlineNanos(), () -> SwingUtilities.invokeLater(this::checkDeadline));
+        timer.restart();
+    }
+
+    private void parkSession() {
+        if (!session.isPlaying()) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (!session.suspend(now)) {
+            recorder.recordTimeout(sessionId, now, session);
+            showTimeout(now);
+            return;
+        }
+        recorder.recordSuspend(sessionId, now, session);
+        timer.stop();
+        deadline.cancel();
+        deadline = null;
+        if (parkedSessions == null) {
+            parkedSessions = new ParkedSessionStore(range, 1);
+        }
+        parkedHandle = parkedSessions.park(session, sessionId);
+    }
+
+    private void resumeParkedSession() {
+        if (parkedHandle == ParkedSessionStore.NO_HANDLE) {
+            return;
+        }
+        long now = System.nanoTime();
+        sessionId = parkedSessions.unpark(parkedHandle, session);
+        parkedHandle = ParkedSessionStore.NO_HANDLE;
+        session.resume(now);
+        recorder.recordResume(sessionId, now, session);
+        lastTickNanos = now;
+        scheduleDeadline();
+    }
+
+    /**
+     * Enter and the Offer button only queue an offering. It is made after the
+     * events already waiting, so a deadline that fired first ends the game
+     * before the offering is read. Presses while one is queued, within
+     * {@link #DEBOUNCE_NANOS} of the last offering, or after the game changed
+     * are dropped, so a bouncing Enter key cannot spend two torches.
+     */
+    private void submitOffering() {
+        if (submitQueued || !session.isPlaying() || System.nanoTime() - lastOfferingNanos < DEBOUNCE_NANOS) {
+            return;
+        }
+        submitQueued = true;
+        queuedGame = game;
+        SwingUtilities.invokeLater(this::makeGuess);
+    }
+
+    private void makeGuess() {
+        submitQueued = false;
+        if (queuedGame != game) {
+            return;
+        }
+        GameEvents.Guess event = new GameEvents.Guess();
+        event.begin();
+        long begin = System.nanoTime();
+        if (!readOffering()) {
+            if (session.isPlaying()) {
+                warn("The temple guardian growls: 'Offer a number, seeker!'");
+            }
+            return;
+        }
+        long guess = guessParser.value();
+
+        long now = System.nanoTime();
+        GameSession.Outcome outcome = session.guess(guess, now);
+        if (outcome == GameSession.Outcome.NOT_PLAYING) {
+            return;
+        }
+        if (outcome != GameSession.Outcome.INVALID) {
+            recorder.recordGuess(sessionId, now, session, guess, outcome);
+        }
+        if (outcome == GameSession.Outcome.TIMED_OUT) {
+            showTimeout(now);
+            guessed(event, begin, guess, outcome);
+            return;
+        }
+        if (outcome == GameSession.Outcome.INVALID) {
+            guessed(event, begin, guess, outcome);
+            warn(rangeWarning);
+            return;
+        }
+
+        lastOfferingNanos = now;
+        guessField.setText("");
+        hud.setTorches(session.attemptsLeft());
+        previousGuessLabel.setText("Last offering: " + guess);
+
+        switch (outcome) {
+            case WON -> {
+                endGame(now);
+                int score = session.score();
+                hud.setTreasure(score);
+                highScore = Math.max(highScore, score);
+                highScoreLabel.setText("Highest Score: " + highScore);
+                leaderboard.add(score);
+                metrics.leaderboardSize(leaderboard.size());
+                saveScore(score);
+                if (gossip != null) {
+                    gossip.record(score);
+                }
+                showFeedback("The ancient door creaks open, revealing the treasure chamber!",
+                        "You have triumphed! Treasure value: " + score,
+                        "Place in the Hall of Explorers: " + leaderboard.rank(score));
+            }
+            case LOST -> {
+                showHint(outcome);
+                endGame(now);
+                showFeedback("The temple guardian speaks: 'Your quest has failed. The sacred number was " + session.secretNumber() + ".'",
+                        "Treasure value: " + session.score());
+            }
+            default -> showHint(outcome);
+        }
+        guessed(event, begin, guess, outcome);
+    }
+
+    // Reads the field through a reused segment, so a guess allocates no String.
+    private boolean readOffering() {
+        Document text = guessField.getDocument();
+        try {
+            text.getText(0, text.getLength(), guessText);
+        } catch (BadLocationException e) {
+            return false;
+        }
+        return guessParser.parse(guessText);
+    }
+
+    // Validates as the player types; the filter has already kept out anything but a number.
+    private void checkOffering() {
+        if (guessField.getDocument().getLength() == 0 || !readOffering()) {
+            warn(null);
+        } else {
+            warn(range.contains(guessParser.value()) ? null : rangeWarning);
+        }
+    }
+
+    private void rejectKeystroke() {
+        warn(rangeWarning);
+        UIManager.getLookAndFeel().provideErrorFeedback(guessField);
+    }
+
+    private void warn(String warning) {
+        String text = warning == null ? " " : warning;
+        if (!text.equals(guardianLabel.getText())) {
+            guardianLabel.setText(text);
+        }
+    }
+
+    private void guessed(GameEvents.Guess event, long begin, long guess, GameSession.Outcome outcome) {
+        long now = System.nanoTime();
+        metrics.guessed(now - begin, now);
+        if (event.shouldCommit()) {
+            event.source = GameEvents.KIOSK;
+            event.offering = guess;
+            event.outcome = outcome.name();
+            event.torchesLeft = session.attemptsLeft();
+            event.commit();
+        }
+    }
+
+    private void showHint(GameSession.Outcome outcome) {
+        boolean greater = outcome == GameSession.Outcome.TOO_LOW
+                || (outcome == GameSession.Outcome.LOST && session.lastGuess() < session.secretNumber());
+        String hint = greater ? "The temple whispers: 'The sacred number is greater.'" : "The temple whispers: 'The sacred number is lesser.'";
+        hintLabel.setText("Temple whispers: " + hint);
+    }
+
+    private void endGame(long now) {
+        recorder.recordEnd(sessionId, now, session);
+        flushRecorder();
+        metrics.sessionEnded(session.state());
+        GameEvents.SessionEnd.emit(GameEvents.KIOSK, session, now);
+        timer.stop();
+        if (deadline != null) {
+            deadline.cancel();
+            deadline = null;
+        }
+    }
+
+    // A kiosk keeps each finished game on disk straight away, in case it is switched off at the wall.
+    private void flushRecorder() {
+        try {
+            scoreWriter.execute(recorder::flush);
+        } catch (RejectedExecutionException e) {
+            // Shutting down; the shutdown hook flushes whatever is left.
+        }
+    }
+
+    private void checkDeadline() {
+        long now = System.nanoTime();
+        if (session.expire(now)) {
+            recorder.recordTimeout(sessionId, now, session);
+            showTimeout(now);
+        }
+    }
+
+    private void showTimeout(long now) {
+        endGame(now);
+        showFeedback("Time has run out! The temple doors slam shut. The sacred number was: " + session.secretNumber(),
+                "Treasure value: " + session.score());
+    }
+
+    private void showFeedback(String message, String... result) {
+        ensureCard("Feedback");
+        feedbackText.setText(message);
+        scoreResultText.setText(result);
+        showCard("Feedback");
+    }
+
+    private class TimerListener implements ActionListener {
+        @Override
+        public void actionPerformed(ActionEvent e) {
+            long now = System.nanoTime();
+            long lateness = now - lastTickNanos - TimeUnit.MILLISECONDS.toNanos(timer.getDelay());
+            lastTickNanos = now;
+            metrics.timerTick(lateness);
+            int timeLeft = session.timeLeft(now);
+            GameEvents.TimerTick event = new GameEvents.TimerTick();
+            if (event.shouldCommit()) {
+                event.secondsLeft = timeLeft;
+                event.lateness = lateness;
+                event.commit();
+            }
+            hud.setTime(timeLeft, session.timeFraction(now), session.isTimeRunningOut(now));
+        }
+    }
+
+    private void showLeaderboard() {
+        TextBlock title = fonts.apply(new TextBlock(LeaderboardText.TITLE), Font.BOLD, 22);
+        int[] top = gossip == null ? leaderboard.topScores() : gossip.hall().topScores();
+        TextBlock places = fonts.apply(new TextBlock(LeaderboardText.lines(top)), Font.PLAIN, 18);
+        JOptionPane.showMessageDialog(this, new Object[] {title, places}, LeaderboardText.TITLE, JOptionPane.INFORMATION_MESSAGE);
+    }
+
+    private void showTutorial() {
+        JOptionPane.showMessageDialog(this,
+                "<html><center><h2>The Ancient Scroll</h2><br>" +
+                "Welcome, brave seeker of fortune!<br><br>" +
+                "You stand before the Forgotten Temple, a place of mystery and untold riches. To claim its treasure, you must solve the temple's sacred riddle.<br><br>" +
+                "Your task: Guess the secret number hidden within the temple walls. You have limited torches (attempts) and time. The quicker you solve the riddle, the greater your reward!<br><br>" +
+                "Listen to the temple's whispers for guidance, but beware - the guardian's patience is not endless.<br><br>" +
+                "May the ancient spirits guide your path to glory!</center></html>",
+                "The Ancient Scroll",
+                JOptionPane.INFORMATION_MESSAGE);
+    }
+
+    public static void main(String[] args) {
+        StartupProfile.mark("main");
+        SwingUtilities.invokeLater(EnhancedGuessingGame::new);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,155 @@
+package temple;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import temple.Solvers.Kind;
+
+/**
+ * Plays every stock {@link Solver} against every difficulty through
+ * {@link SessionBatch}, to check that the torch count stays fair and to
+ * measure raw rule throughput. Bots hesitate a random 0 to 2x
+ * {@code thinkSeconds} of simulated time before each offering, so the
+ * difficulties' time limits matter. Uses {@code -Dtemple.range} like the game.
+ *
+ * <pre>java temple.BotArena [gamesPerMatchup] [threads] [thinkSeconds]</pre>
+ */
+public final class BotArena {
+    private static final int BATCH = 1024;
+
+    public static void main(String[] args) throws InterruptedException, ExecutionException {
+        long games = args.length > 0 ? Long.parseLong(args[0]) : 1_000_000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        double thinkSeconds = args.length > 2 ? Double.parseDouble(args[2]) : 3;
+        SecretRange range = SecretRange.configured();
+        long thinkNanos = (long) (thinkSeconds * TimeUnit.SECONDS.toNanos(1));
+
+        long size = range.max() - range.min() + 1;
+        int certain = size == 0 ? Long.SIZE + 1 : Long.SIZE - Long.numberOfLeadingZeros(size);
+        System.out.printf("range %s: %d torches; binary search is certain to win with %d%n",
+                range, range.attempts(), certain);
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            for (Difficulty difficulty : Difficulty.values()) {
+                double binaryWins = 0;
+                for (Kind kind : Kind.values()) {
+                    List<Future<Tally>> parts = new ArrayList<>();
+                    long started = System.nanoTime();
+                    for (int t = 0; t < threads; t++) {
+                        long share = games / threads + (t < games % threads ? 1 : 0);
+                        long seed = Seeds.next();
+                        parts.add(pool.submit(() -> play(kind, difficulty, range, share, thinkNanos, seed)));
+                    }
+                    Tally total = new Tally();
+                    for (Future<Tally> part : parts) {
+                        total.merge(part.get());
+                    }
+                    double seconds = (System.nanoTime() - started) / 1e9;
+                    System.out.printf("%-24s %-14s won %5.1f%%  lost %5.1f%%  timed out %5.1f%%  torches %5.2f  invalid %d  %,.0f games/s/core%n",
+                            difficulty.label(), kind.create(1, 0).name(),
+                            total.percent(total.won), total.percent(total.lost), total.percent(total.timedOut),
+                            (double) total.torches / total.games, total.invalid, total.games / seconds / threads);
+                    if (kind == Kind.BINARY_SEARCH) {
+                        binaryWins = total.percent(total.won);
+                    } else if (total.percent(total.won) > binaryWins + 1) {
+                        System.out.println("  UNFAIR: " + kind.create(1, 0).name() + " beats binary search");
+                    }
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static Tally play(Kind kind, Difficulty difficulty, SecretRange range, long games, long thinkNanos, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int capacity = (int) Math.max(1, Math.min(BATCH, games));
+        SessionBatch batch = new SessionBatch(capacity, range);
+        Solver solver = kind.create(capacity, random.nextLong());
+        long[] guesses = new long[capacity];
+        long[] now = new long[capacity];
+        byte[] outcomes = new byte[capacity];
+        Tally tally = new Tally();
+
+        long dealt = 0;
+        int active = 0;
+        for (int i = 0; i < capacity && dealt < games; i++, dealt++, active++) {
+            deal(batch, solver, i, difficulty, random.nextLong(), now);
+        }
+        while (active > 0) {
+            for (int i = 0; i < capacity; i++) {
+                if (batch.isPlaying(i)) {
+                    guesses[i] = solver.next(i);
+                    now[i] += (long) (random.nextDouble() * 2 * thinkNanos);
+                }
+            }
+            batch.evaluate(0, capacity, guesses, now, outcomes);
+            for (int i = 0; i < capacity; i++) {
+                byte outcome = outcomes[i];
+                if (outcome == SessionBatch.NOT_PLAYING) {
+                    continue;
+                }
+                if (outcome == SessionBatch.INVALID) {
+                    tally.invalid++;
+                }
+                solver.observe(i, guesses[i], outcome);
+                if (!batch.isPlaying(i)) {
+                    tally.add(batch, i);
+                    if (dealt < games) {
+                        deal(batch, solver, i, difficulty, random.nextLong(), now);
+                        dealt++;
+                    } else {
+                        active--;
+                    }
+                }
+            }
+        }
+        return tally;
+    }
+
+    private static void deal(SessionBatch batch, Solver solver, int slot, Difficulty difficulty, long seed, long[] now) {
+        now[slot] = 0;
+        batch.start(slot, difficulty, seed, 0);
+        solver.begin(slot, batch.range().min(), batch.range().max());
+    }
+
+    private static final class Tally {
+        long games;
+        long won;
+        long lost;
+        long timedOut;
+        long torches;
+        long invalid;
+
+        void add(SessionBatch batch, int slot) {
+            games++;
+            torches += batch.torchesUsed(slot);
+            switch (batch.state(slot)) {
+                case WON -> won++;
+                case LOST -> lost++;
+                case TIMED_OUT -> timedOut++;
+                default -> { }
+            }
+        }
+
+        void merge(Tally other) {
+            games += other.games;
+            won += other.won;
+            lost += other.lost;
+            timedOut += other.timedOut;
+            torches += other.torches;
+            invalid += other.invalid;
+        }
+
+        double percent(long part) {
+            return games == 0 ? 0 : 100.0 * part / games;
+        }
+    }
+}
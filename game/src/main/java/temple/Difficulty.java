@@ -0,0 +1,28 @@
+package temple;
+
+public enum Difficulty {
+    EASY("Easy (Novice Explorer)", GameSession.TIME_LIMIT_EASY),
+    MEDIUM("Medium (Ancient Path)", GameSession.TIME_LIMIT_MEDIUM),
+    HARD("Hard (Guardian's Trial)", GameSession.TIME_LIMIT_HARD);
+
+    private final String label;
+    private final int timeLimit;
+
+    Difficulty(String label, int timeLimit) {
+        this.label = label;
+        this.timeLimit = timeLimit;
+    }
+
+    public String label() {
+        return label;
+    }
+
+    public int timeLimit() {
+        return timeLimit;
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
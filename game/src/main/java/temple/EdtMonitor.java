@@ -0,0 +1,74 @@
+package temple;
+
+import java.awt.EventQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures how long the event dispatch thread takes to pick up work. A daemon
+ * thread posts a probe every {@code periodMillis}; the probe records the delay
+ * between posting and running. Only one probe is in flight at a time, so a
+ * stalled EDT shows up as one long sample rather than a pile of queued ones.
+ */
+public final class EdtMonitor {
+    private final LatencyHistogram dispatchDelay = new LatencyHistogram();
+    private final AtomicBoolean probeInFlight = new AtomicBoolean();
+    private final AtomicLong stalls = new AtomicLong();
+    private final long stallThresholdNanos;
+    private final long periodMillis;
+    private ScheduledExecutorService scheduler;
+
+    public EdtMonitor(long periodMillis, long stallThresholdMillis) {
+        this.periodMillis = periodMillis;
+        this.stallThresholdNanos = TimeUnit.MILLISECONDS.toNanos(stallThresholdMillis);
+    }
+
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "edt-monitor");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleAtFixedRate(this::probe, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    private void probe() {
+        if (!probeInFlight.compareAndSet(false, true)) {
+            return;
+        }
+        long posted = System.nanoTime();
+        EventQueue.invokeLater(() -> {
+            long delay = System.nanoTime() - posted;
+            dispatchDelay.record(delay);
+            if (delay >= stallThresholdNanos) {
+                stalls.incrementAndGet();
+            }
+            probeInFlight.set(false);
+        });
+    }
+
+    public LatencyHistogram dispatchDelay() {
+        return dispatchDelay;
+    }
+
+    public long stalls() {
+        return stalls.get();
+    }
+
+    public String dump() {
+        return dispatchDelay.summary("edt dispatch delay") + " stalls=" + stalls();
+    }
+}
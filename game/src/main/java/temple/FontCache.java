@@ -0,0 +1,44 @@
+package temple;
+
+import java.awt.Font;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Interned fonts, one table per family indexed by (style, point size). A lookup
+ * is an array read, so scaling a whole component tree allocates no fonts once
+ * each size has been seen.
+ */
+public final class FontCache {
+    public static final int MAX_SIZE = 256;
+    private static final int STYLES = 4; // PLAIN, BOLD, ITALIC, BOLD|ITALIC
+    private static final ConcurrentHashMap<String, FontCache> FAMILIES = new ConcurrentHashMap<>();
+
+    private final String family;
+    private final AtomicReferenceArray<Font> fonts = new AtomicReferenceArray<>(STYLES * (MAX_SIZE + 1));
+
+    private FontCache(String family) {
+        this.family = family;
+    }
+
+    public static FontCache forFamily(String family) {
+        return FAMILIES.computeIfAbsent(family, FontCache::new);
+    }
+
+    public Font get(int style, int size) {
+        int clamped = Math.max(1, Math.min(MAX_SIZE, size));
+        int index = (style & (Font.BOLD | Font.ITALIC)) * (MAX_SIZE + 1) + clamped;
+        Font font = fonts.get(index);
+        if (font == null) {
+            font = new Font(family, style, clamped);
+            if (!fonts.compareAndSet(index, null, font)) {
+                font = fonts.get(index);
+            }
+        }
+        return font;
+    }
+
+    public String family() {
+        return family;
+    }
+}
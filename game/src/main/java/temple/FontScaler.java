@@ -0,0 +1,78 @@
+package temple;
+
+import java.awt.Component;
+import java.awt.Container;
+import java.awt.Font;
+
+import javax.swing.JComponent;
+
+/**
+ * Scales fonts with the window. Each component remembers its design size and
+ * style as client properties, and every rescale goes back to those rather than
+ * to the component's current, already-scaled font, so sizes never compound.
+ * EDT only.
+ */
+public final class FontScaler {
+    private static final String BASE_SIZE = "temple.font.baseSize";
+    private static final String STYLE = "temple.font.style";
+    private static final float MIN_CHANGE = 0.01f;
+
+    private final FontCache cache;
+    private float multiplier = 1.0f;
+    private long relayouts;
+
+    public FontScaler(String family) {
+        this.cache = FontCache.forFamily(family);
+    }
+
+    public Font font(int style, int baseSize) {
+        return cache.get(style, Math.round(baseSize * multiplier));
+    }
+
+    public <C extends JComponent> C apply(C component, int style, int baseSize) {
+        component.putClientProperty(BASE_SIZE, baseSize);
+        component.putClientProperty(STYLE, style);
+        component.setFont(font(style, baseSize));
+        return component;
+    }
+
+    /**
+     * Switches to a new multiplier and rescales {@code root} if it moved enough
+     * to matter. Returns true when the tree was rescaled and needs a relayout.
+     */
+    public boolean rescale(Container root, float newMultiplier) {
+        if (Math.abs(newMultiplier - multiplier) < MIN_CHANGE) {
+            return false;
+        }
+        multiplier = newMultiplier;
+        rescaleTree(root);
+        relayouts++;
+        return true;
+    }
+
+    public void rescaleTree(Container container) {
+        for (Component comp : container.getComponents()) {
+            if (comp instanceof JComponent) {
+                JComponent jc = (JComponent) comp;
+                Object base = jc.getClientProperty(BASE_SIZE);
+                if (base instanceof Integer) {
+                    Font font = font((Integer) jc.getClientProperty(STYLE), (Integer) base);
+                    if (font != jc.getFont()) {
+                        jc.setFont(font);
+                    }
+                }
+            }
+            if (comp instanceof Container) {
+                rescaleTree((Container) comp);
+            }
+        }
+    }
+
+    public float multiplier() {
+        return multiplier;
+    }
+
+    public long relayouts() {
+        return relayouts;
+    }
+}
@@ -0,0 +1,137 @@
+package temple;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight Recorder events emitted by the kiosk and the server. They cost nothing
+ * unless a recording is running, e.g. {@code -XX:StartFlightRecording} or
+ * {@code jcmd <pid> JFR.start}; look under "Forgotten Temple" in JDK Mission
+ * Control. The {@code source} field tells kiosk and server events apart.
+ */
+public final class GameEvents {
+    public static final String KIOSK = "kiosk";
+    public static final String SERVER = "server";
+
+    private GameEvents() {
+    }
+
+    @Name("temple.SessionStart")
+    @Label("Session Start")
+    @Category("Forgotten Temple")
+    @StackTrace(false)
+    public static final class SessionStart extends Event {
+        @Label("Source")
+        public String source;
+
+        @Label("Difficulty")
+        public String difficulty;
+
+        @Label("Seed")
+        public long seed;
+
+        public static void emit(String source, Difficulty difficulty, long seed) {
+            SessionStart event = new SessionStart();
+            if (event.shouldCommit()) {
+                event.source = source;
+                event.difficulty = difficulty.label();
+                event.seed = seed;
+                event.commit();
+            }
+        }
+    }
+
+    @Name("temple.SessionEnd")
+    @Label("Session End")
+    @Category("Forgotten Temple")
+    @StackTrace(false)
+    public static final class SessionEnd extends Event {
+        @Label("Source")
+        public String source;
+
+        @Label("Difficulty")
+        public String difficulty;
+
+        @Label("Result")
+        @Description("WON, LOST, TIMED_OUT, or PLAYING when the player left mid-game")
+        public String result;
+
+        @Label("Treasure Value")
+        public int score;
+
+        @Label("Torches Used")
+        public int torchesUsed;
+
+        @Label("Play Time")
+        @Timespan(Timespan.NANOSECONDS)
+        public long playTime;
+
+        public static void emit(String source, GameSession session, long nowNanos) {
+            SessionEnd event = new SessionEnd();
+            if (event.shouldCommit()) {
+                event.source = source;
+                event.difficulty = session.difficulty().label();
+                event.result = session.state().name();
+                event.score = session.score();
+                event.torchesUsed = session.torchesUsed();
+                event.playTime = nowNanos - session.startNanos();
+                event.commit();
+            }
+        }
+    }
+
+    /** Spans the handling of one offering, from reading the input to updating the display. */
+    @Name("temple.Guess")
+    @Label("Guess")
+    @Category("Forgotten Temple")
+    @StackTrace(false)
+    public static final class Guess extends Event {
+        @Label("Source")
+        public String source;
+
+        @Label("Offering")
+        public long offering;
+
+        @Label("Outcome")
+        public String outcome;
+
+        @Label("Torches Left")
+        public int torchesLeft;
+    }
+
+    @Name("temple.TimerTick")
+    @Label("Timer Tick")
+    @Category("Forgotten Temple")
+    @StackTrace(false)
+    public static final class TimerTick extends Event {
+        @Label("Seconds Left")
+        public int secondsLeft;
+
+        @Label("Lateness")
+        @Description("How much later than its period the display timer fired")
+        @Timespan(Timespan.NANOSECONDS)
+        public long lateness;
+    }
+
+    /** Spans showing a card, including building it on first use. */
+    @Name("temple.CardSwitch")
+    @Label("Card Switch")
+    @Category("Forgotten Temple")
+    @StackTrace(false)
+    public static final class CardSwitch extends Event {
+        @Label("From")
+        public String from;
+
+        @Label("To")
+        public String to;
+
+        @Label("Built")
+        @Description("Whether the card was created by this switch")
+        public boolean built;
+    }
+}
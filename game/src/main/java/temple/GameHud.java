@@ -0,0 +1,191 @@
+package temple;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+
+import javax.swing.JComponent;
+
+/**
+ * The in-game heads-up display: torches, time, a time bar and treasure value
+ * painted by one component. Setters only repaint what changed: a text row when
+ * its value changes, and just the sliver of the bar between the old and new
+ * fill, so a 60 fps progress animation costs a few pixels per frame and never
+ * revalidates the layout. Paint times go to {@link GameMetrics}. Text uses
+ * the foreground color, the bar its own color. EDT only.
+ */
+public final class GameHud extends JComponent {
+    private static final long serialVersionUID = 1L;
+    private static final int GAP = 10;
+    private static final int BAR_HEIGHT = 18;
+
+    private int torches = -1;
+    private int secondsLeft = -1;
+    private double fraction = 1;
+    private boolean warning;
+    private int treasure = -1;
+    private String torchesText = "";
+    private String timeText = "";
+    private String treasureText = "";
+    private Color barColor = ThemePalette.LIGHT.progress();
+    private Color trackColor = new Color(0, 0, 0, 48);
+
+    // Row geometry, recomputed when the size or font changes.
+    private int rowHeight;
+    private int ascent;
+    private int layoutWidth = -1;
+    private Font layoutFont;
+    private int fillWidth;
+    private final Rectangle bar = new Rectangle();
+
+    public GameHud() {
+        setOpaque(true);
+    }
+
+    public void setTorches(int torches) {
+        if (torches != this.torches) {
+            this.torches = torches;
+            torchesText = "Torches remaining: " + torches;
+            repaintRow(0);
+        }
+    }
+
+    public void setTreasure(int treasure) {
+        if (treasure != this.treasure) {
+            this.treasure = treasure;
+            treasureText = "Treasure value: " + treasure;
+            repaintRow(3);
+        }
+    }
+
+    /** Updates the clock; call as often as the animation should move. */
+    public void setTime(int secondsLeft, double fraction, boolean warning) {
+        if (secondsLeft != this.secondsLeft || warning != this.warning) {
+            this.secondsLeft = secondsLeft;
+            this.warning = warning;
+            timeText = "Time remaining: " + secondsLeft + "s";
+            repaintRow(1);
+        }
+        this.fraction = fraction;
+        if (ensureLayout()) {
+            int newFill = fill(fraction);
+            if (newFill != fillWidth) {
+                int from = Math.min(newFill, fillWidth);
+                int to = Math.max(newFill, fillWidth);
+                fillWidth = newFill;
+                repaint(bar.x + from, bar.y, to - from + 1, bar.height);
+            }
+        }
+    }
+
+    public void setBarColor(Color color) {
+        barColor = color;
+        repaint();
+    }
+
+    Color barColor() {
+        return barColor;
+    }
+
+    @Override
+    public void setForeground(Color fg) {
+        super.setForeground(fg);
+        trackColor = new Color(fg.getRed(), fg.getGreen(), fg.getBlue(), 48);
+    }
+
+    @Override
+    public void setFont(Font font) {
+        super.setFont(font);
+        layoutFont = null;
+        revalidate();
+        repaint();
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        if (isPreferredSizeSet()) {
+            return super.getPreferredSize();
+        }
+        FontMetrics fm = getFontMetrics(getFont());
+        int width = Math.max(fm.stringWidth("Torches remaining: 00"), fm.stringWidth("Time remaining: 00s"));
+        int height = 3 * fm.getHeight() + BAR_HEIGHT + 3 * GAP;
+        return new Dimension(width, height);
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        long started = System.nanoTime();
+        ensureLayout();
+        Graphics2D g2 = (Graphics2D) g;
+        Rectangle clip = g2.getClipBounds();
+        if (clip == null) {
+            clip = new Rectangle(0, 0, getWidth(), getHeight());
+        }
+        g2.setColor(getBackground());
+        g2.fillRect(clip.x, clip.y, clip.width, clip.height);
+        g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g2.setFont(getFont());
+
+        // Only draw what intersects the dirty region.
+        paintRow(g2, clip, 0, torchesText, getForeground());
+        paintRow(g2, clip, 1, timeText, warning ? ThemePalette.WARNING : getForeground());
+        if (clip.intersects(bar)) {
+            g2.setColor(trackColor);
+            g2.fillRect(bar.x + fillWidth, bar.y, bar.width - fillWidth, bar.height);
+            g2.setColor(barColor);
+            g2.fillRect(bar.x, bar.y, fillWidth, bar.height);
+        }
+        paintRow(g2, clip, 3, treasureText, getForeground());
+        GameMetrics.shared().framePainted(System.nanoTime() - started);
+    }
+
+    private void paintRow(Graphics2D g2, Rectangle clip, int row, String text, Color color) {
+        int y = rowY(row);
+        if (clip.y >= y + rowHeight || clip.y + clip.height <= y) {
+            return;
+        }
+        g2.setColor(color);
+        int x = (getWidth() - g2.getFontMetrics().stringWidth(text)) / 2;
+        g2.drawString(text, x, y + ascent);
+    }
+
+    private void repaintRow(int row) {
+        if (ensureLayout()) {
+            repaint(0, rowY(row), getWidth(), rowHeight);
+        }
+    }
+
+    // Rows top to bottom: torches, time, bar, treasure.
+    private int rowY(int row) {
+        return switch (row) {
+            case 0 -> 0;
+            case 1 -> rowHeight + GAP;
+            default -> bar.y + bar.height + GAP;
+        };
+    }
+
+    private boolean ensureLayout() {
+        if (getWidth() <= 0 || getFont() == null) {
+            return false;
+        }
+        if (getWidth() != layoutWidth || getFont() != layoutFont) {
+            FontMetrics fm = getFontMetrics(getFont());
+            rowHeight = fm.getHeight();
+            ascent = fm.getAscent();
+            bar.setBounds(0, 2 * (rowHeight + GAP), getWidth(), BAR_HEIGHT);
+            layoutWidth = getWidth();
+            layoutFont = getFont();
+            fillWidth = fill(fraction);
+        }
+        return true;
+    }
+
+    private int fill(double fraction) {
+        return (int) Math.round(bar.width * Math.max(0, Math.min(1, fraction)));
+    }
+}
@@ -0,0 +1,213 @@
+package temple;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Process-wide game counters and latency histograms. Updates are lock-free and
+ * allocation-free so the kiosk's EDT and the server's selector thread can call
+ * them on every guess. {@link #register()} publishes the instance to the
+ * platform MBean server; it is kept out of the startup path because creating
+ * that server loads a good deal of JMX.
+ */
+public final class GameMetrics implements GameMetricsMXBean {
+    public static final String OBJECT_NAME = "temple:type=GameMetrics";
+
+    private static final GameMetrics SHARED = new GameMetrics();
+    private static final int RATE_SLOTS = 8;
+    private static final int RATE_WINDOW_SECONDS = 5;
+
+    private final LongAdder started = new LongAdder();
+    private final LongAdder wins = new LongAdder();
+    private final LongAdder losses = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder abandoned = new LongAdder();
+    private final LongAdder guesses = new LongAdder();
+    private volatile long leaderboardSize;
+
+    // Guesses per whole second of System.nanoTime, in a small ring of slots.
+    private final AtomicLongArray rateSeconds = new AtomicLongArray(RATE_SLOTS);
+    private final AtomicLongArray rateCounts = new AtomicLongArray(RATE_SLOTS);
+
+    private final LatencyHistogram guessLatency = new LatencyHistogram();
+    private final LatencyHistogram tickLateness = new LatencyHistogram();
+    private final LatencyHistogram cardSwitch = new LatencyHistogram();
+    private final LatencyHistogram hudFrames = new LatencyHistogram();
+
+    private boolean registered;
+
+    public static GameMetrics shared() {
+        return SHARED;
+    }
+
+    /** Publishes the shared instance over JMX; later calls do nothing. */
+    public static void register() {
+        synchronized (SHARED) {
+            if (SHARED.registered) {
+                return;
+            }
+            try {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(SHARED, new ObjectName(OBJECT_NAME));
+                SHARED.registered = true;
+            } catch (JMException e) {
+                System.err.println("Could not publish game metrics: " + e);
+            }
+        }
+    }
+
+    public void sessionStarted() {
+        started.increment();
+    }
+
+    public void sessionEnded(GameSession.State state) {
+        switch (state) {
+            case WON -> wins.increment();
+            case LOST -> losses.increment();
+            case TIMED_OUT -> timeouts.increment();
+            default -> abandoned.increment();
+        }
+    }
+
+    public void guessed(long latencyNanos, long nowNanos) {
+        guesses.increment();
+        guessLatency.record(latencyNanos);
+        long second = nowNanos / 1_000_000_000L;
+        int slot = (int) Math.floorMod(second, (long) RATE_SLOTS);
+        long seen = rateSeconds.get(slot);
+        // A guess racing the reset may be lost; the rate is only an estimate.
+        if (seen != second && rateSeconds.compareAndSet(slot, seen, second)) {
+            rateCounts.set(slot, 0);
+        }
+        rateCounts.incrementAndGet(slot);
+    }
+
+    public void timerTick(long latenessNanos) {
+        tickLateness.record(latenessNanos);
+    }
+
+    public void cardSwitched(long nanos) {
+        cardSwitch.record(nanos);
+    }
+
+    public void framePainted(long nanos) {
+        hudFrames.record(nanos);
+    }
+
+    public void leaderboardSize(long size) {
+        leaderboardSize = size;
+    }
+
+    @Override
+    public long getActiveSessions() {
+        return started.sum() - wins.sum() - losses.sum() - timeouts.sum() - abandoned.sum();
+    }
+
+    @Override
+    public long getSessionsStarted() {
+        return started.sum();
+    }
+
+    @Override
+    public long getWins() {
+        return wins.sum();
+    }
+
+    @Override
+    public long getLosses() {
+        return losses.sum();
+    }
+
+    @Override
+    public long getTimeouts() {
+        return timeouts.sum();
+    }
+
+    @Override
+    public long getAbandoned() {
+        return abandoned.sum();
+    }
+
+    @Override
+    public long getGuesses() {
+        return guesses.sum();
+    }
+
+    /** Average over the last five complete seconds. */
+    @Override
+    public double getGuessesPerSecond() {
+        long current = System.nanoTime() / 1_000_000_000L;
+        long sum = 0;
+        for (long second = current - RATE_WINDOW_SECONDS; second < current; second++) {
+            int slot = (int) Math.floorMod(second, (long) RATE_SLOTS);
+            if (rateSeconds.get(slot) == second) {
+                sum += rateCounts.get(slot);
+            }
+        }
+        return (double) sum / RATE_WINDOW_SECONDS;
+    }
+
+    @Override
+    public long getLeaderboardSize() {
+        return leaderboardSize;
+    }
+
+    @Override
+    public long getGuessLatencyP50Micros() {
+        return micros(guessLatency.percentile(50));
+    }
+
+    @Override
+    public long getGuessLatencyP99Micros() {
+        return micros(guessLatency.percentile(99));
+    }
+
+    @Override
+    public long getGuessLatencyMaxMicros() {
+        return micros(guessLatency.max());
+    }
+
+    @Override
+    public long getTimerTickLatenessP99Micros() {
+        return micros(tickLateness.percentile(99));
+    }
+
+    @Override
+    public long getCardSwitchP99Micros() {
+        return micros(cardSwitch.percentile(99));
+    }
+
+    @Override
+    public long getHudFrameP99Micros() {
+        return micros(hudFrames.percentile(99));
+    }
+
+    @Override
+    public long getHudFrameMaxMicros() {
+        return micros(hudFrames.max());
+    }
+
+    @Override
+    public String getSummary() {
+        return String.format("sessions active=%d started=%d won=%d lost=%d timedOut=%d abandoned=%d guesses=%d (%.1f/s)%n%s%n%s%n%s%n%s",
+                getActiveSessions(), getSessionsStarted(), getWins(), getLosses(), getTimeouts(), getAbandoned(),
+                getGuesses(), getGuessesPerSecond(),
+                guessLatency.summary("guess"), tickLateness.summary("timer lateness"), cardSwitch.summary("card switch"), hudFrames.summary("hud frame"));
+    }
+
+    @Override
+    public void resetHistograms() {
+        guessLatency.reset();
+        tickLateness.reset();
+        cardSwitch.reset();
+        hudFrames.reset();
+    }
+
+    private static long micros(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+}
@@ -0,0 +1,43 @@
+package temple;
+
+/**
+ * Live game counters, published over JMX as {@code temple:type=GameMetrics}.
+ * Latencies are in microseconds.
+ */
+public interface GameMetricsMXBean {
+    long getActiveSessions();
+
+    long getSessionsStarted();
+
+    long getWins();
+
+    long getLosses();
+
+    long getTimeouts();
+
+    long getAbandoned();
+
+    long getGuesses();
+
+    double getGuessesPerSecond();
+
+    long getLeaderboardSize();
+
+    long getGuessLatencyP50Micros();
+
+    long getGuessLatencyP99Micros();
+
+    long getGuessLatencyMaxMicros();
+
+    long getTimerTickLatenessP99Micros();
+
+    long getCardSwitchP99Micros();
+
+    long getHudFrameP99Micros();
+
+    long getHudFrameMaxMicros();
+
+    String getSummary();
+
+    void resetHistograms();
+}
@@ -0,0 +1,593 @@
+package temple;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hosts many Forgotten Temple games from one selector thread. Each connection
+ * plays one session at a time through a line protocol that mirrors the frame:
+ *
+ * <pre>
+ * START [EASY|MEDIUM|HARD]  -&gt; READY min max torches seconds
+ * GUESS n                   -&gt; GREATER torches | LESSER torches | WIN score | LOSE secret
+ *                              | INVALID min max | DONE
+ * SUSPEND                   -&gt; PARKED token | DONE
+ * RESUME token              -&gt; READY min max torches seconds
+ * QUIT                      -&gt; (connection closed)
+ * (server initiated)        -&gt; TIMEOUT secret
+ * </pre>
+ *
+ * Anything else is answered with {@code ERR}. Per-connection memory is fixed:
+ * a 64-byte line buffer, a 512-byte reply buffer and one {@link GameSession}.
+ * A longer line, or a client that stops reading replies, is disconnected.
+ * A suspended game is parked off-heap with its clock stopped and can be
+ * resumed from any connection with its token; one left parked longer than
+ * {@code -Dtemple.park.ttl} seconds (an hour by default) times out.
+ * With {@code -Dtemple.record.dir=...} every session is recorded for replay,
+ * and {@code -Dtemple.range=min..max} deals secrets from a wider range.
+ */
+public final class GameServer implements Runnable, Closeable {
+    public static final int DEFAULT_PORT = 7777;
+    static final int MAX_LINE = 64;
+    static final int OUT_CAPACITY = 512;
+
+    private static final byte[] READY = ascii("READY ");
+    private static final byte[] GREATER = ascii("GREATER ");
+    private static final byte[] LESSER = ascii("LESSER ");
+    private static final byte[] WIN = ascii("WIN ");
+    private static final byte[] LOSE = ascii("LOSE ");
+    private static final byte[] TIMEOUT = ascii("TIMEOUT ");
+    private static final byte[] INVALID = ascii("INVALID ");
+    private static final byte[] DONE = ascii("DONE\n");
+    private static final byte[] PARKED = ascii("PARKED ");
+    private static final byte[] ERR_TOKEN = ascii("ERR no game parked under that token\n");
+    private static final byte[] ERR_FULL = ascii("ERR too many parked games\n");
+    private static final int MAX_PARKED = 1 << 22;
+    private static final long PARK_TTL_NANOS = TimeUnit.SECONDS.toNanos(Long.getLong("temple.park.ttl", 3600));
+    private static final long PARK_SWEEP_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final byte[] ERR_COMMAND = ascii("ERR unknown command\n");
+    private static final byte[] ERR_LINE = ascii("ERR line too long\n");
+
+    private final Selector selector;
+    private final ServerSocketChannel server;
+    private final TimingWheel deadlines = new TimingWheel(50, TimeUnit.MILLISECONDS, 4096, "game-server-deadlines");
+    private final Queue<Connection> expired = new ConcurrentLinkedQueue<>();
+    private final SessionRecorder recorder; // null when not recording
+    private volatile boolean running = true;
+    private final CountDownLatch stopped = new CountDownLatch(1);
+
+    private final LongAdder connections = new LongAdder();
+    private final LongAdder sessionsStarted = new LongAdder();
+    private final LongAdder sessionsFinished = new LongAdder();
+    private final LongAdder guesses = new LongAdder();
+    private final GameMetrics metrics = GameMetrics.shared();
+    private final GuessParser parser = new GuessParser();
+    private final SecretRange range;
+    private final ParkedSessionStore parked;
+    private final GameSession unparked = new GameSession(); // scratch for games expired from the store
+    private volatile boolean parkSweepDue;
+
+    public GameServer(InetSocketAddress bindAddress) throws IOException {
+        this(bindAddress, null);
+    }
+
+    public GameServer(InetSocketAddress bindAddress, SessionRecorder recorder) throws IOException {
+        this(bindAddress, recorder, SecretRange.configured());
+    }
+
+    public GameServer(InetSocketAddress bindAddress, SessionRecorder recorder, SecretRange range) throws IOException {
+        this.recorder = recorder;
+        this.range = range;
+        parked = new ParkedSessionStore(range, MAX_PARKED);
+        selector = Selector.open();
+        server = ServerSocketChannel.open();
+        server.bind(bindAddress, 4096);
+        server.configureBlocking(false);
+        server.register(selector, SelectionKey.OP_ACCEPT);
+        scheduleParkSweep();
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        String recordDir = System.getProperty("temple.record.dir");
+        SessionRecorder recorder = recordDir == null ? null : new SessionRecorder(Path.of(recordDir), false);
+        GameServer gameServer = new GameServer(new InetSocketAddress(port), recorder);
+        GameMetrics.register();
+        // Ctrl+C or SIGTERM: let the selector loop finish so the recorder's buffered tail reaches disk.
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            gameServer.close();
+            gameServer.awaitStop(5, TimeUnit.SECONDS);
+        }, "game-server-shutdown"));
+        System.out.println("Forgotten Temple server listening on port " + gameServer.port());
+        gameServer.run();
+    }
+
+    public int port() {
+        return server.socket().getLocalPort();
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (running) {
+                selector.select();
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        try {
+                            accept();
+                        } catch (IOException e) {
+                            // Usually the descriptor limit; keep serving the players we have.
+                            System.err.println("Could not accept connection: " + e);
+                        }
+                    } else {
+                        Connection c = (Connection) key.attachment();
+                        try {
+                            if (key.isReadable()) {
+                                read(c);
+                            }
+                            if (key.isValid() && key.isWritable()) {
+                                flush(c);
+                            }
+                        } catch (IOException e) {
+                            disconnect(c);
+                        }
+                    }
+                }
+                drainExpired();
+                if (parkSweepDue) {
+                    parkSweepDue = false;
+                    expireParked(System.nanoTime());
+                    scheduleParkSweep();
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Game server stopped: " + e);
+        } finally {
+            closeQuietly();
+        }
+    }
+
+    /** Stops the server; {@link #run} closes the connections and the recorder on its way out. */
+    @Override
+    public void close() {
+        running = false;
+        deadlines.close();
+        selector.wakeup();
+    }
+
+    /** Waits for {@link #run} to finish after {@link #close}; returns whether it did in time. */
+    public boolean awaitStop(long timeout, TimeUnit unit) {
+        try {
+            return stopped.await(timeout, unit);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void closeQuietly() {
+        for (SelectionKey key : selector.keys()) {
+            try {
+                key.channel().close();
+            } catch (IOException ignored) {
+                // already going away
+            }
+        }
+        try {
+            selector.close();
+        } catch (IOException ignored) {
+            // nothing left to release
+        }
+        if (recorder != null) {
+            try {
+                recorder.close();
+            } catch (IOException e) {
+                System.err.println("Could not close session recording: " + e);
+            }
+        }
+        stopped.countDown();
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = server.accept()) != null) {
+            channel.configureBlocking(false);
+            channel.socket().setTcpNoDelay(true);
+            Connection c = new Connection(channel);
+            c.key = channel.register(selector, SelectionKey.OP_READ, c);
+            connections.increment();
+        }
+    }
+
+    private void read(Connection c) throws IOException {
+        if (c.channel.read(c.in) < 0) {
+            disconnect(c);
+            return;
+        }
+        byte[] buf = c.in.array();
+        int start = 0;
+        int end = c.in.position();
+        for (int i = 0; i < end && c.key.isValid(); i++) {
+            if (buf[i] == '\n') {
+                int lineEnd = i > start && buf[i - 1] == '\r' ? i - 1 : i;
+                handleLine(c, buf, start, lineEnd);
+                start = i + 1;
+            }
+        }
+        if (!c.key.isValid()) {
+            return;
+        }
+        if (start == 0 && end == buf.length) {
+            reply(c, ERR_LINE);
+            flush(c);
+            disconnect(c);
+            return;
+        }
+        System.arraycopy(buf, start, buf, 0, end - start);
+        c.in.position(end - start);
+        flush(c);
+    }
+
+    private void handleLine(Connection c, byte[] line, int from, int to) throws IOException {
+        if (startsWith(line, from, to, "START")) {
+            start(c, parseDifficulty(line, from + 5, to));
+        } else if (startsWith(line, from, to, "GUESS")) {
+            guess(c, line, from + 5, to);
+        } else if (startsWith(line, from, to, "SUSPEND")) {
+            suspend(c);
+        } else if (startsWith(line, from, to, "RESUME")) {
+            resume(c, line, from + 6, to);
+        } else if (startsWith(line, from, to, "QUIT")) {
+            disconnect(c);
+        } else {
+            reply(c, ERR_COMMAND);
+        }
+    }
+
+    private void start(Connection c, Difficulty difficulty) {
+        long now = System.nanoTime();
+        stopPlaying(c, now);
+        long seed = Seeds.next();
+        c.session.start(difficulty, range, seed, now);
+        if (recorder != null) {
+            c.sessionId = recorder.recordStart(difficulty, range, seed, now);
+        }
+        scheduleDeadline(c);
+        sessionsStarted.increment();
+        metrics.sessionStarted();
+        GameEvents.SessionStart.emit(GameEvents.SERVER, difficulty, seed);
+        replyReady(c, now);
+    }
+
+    private void scheduleDeadline(Connection c) {
+        c.deadline = deadlines.schedule(c.session.deadlineNanos(), () -> {
+            expired.add(c);
+            selector.wakeup();
+        });
+    }
+
+    private void replyReady(Connection c, long now) {
+        reply(c, READY);
+        replyInt(c, range.min(), ' ');
+        replyInt(c, range.max(), ' ');
+        replyInt(c, c.session.attemptsLeft(), ' ');
+        replyInt(c, c.session.timeLeft(now), '\n');
+    }
+
+    private void guess(Connection c, byte[] line, int from, int to) {
+        GameEvents.Guess event = new GameEvents.Guess();
+        event.begin();
+        boolean parsed = parser.parse(line, from, to);
+        long value = parsed ? parser.value() : 0;
+        long now = System.nanoTime();
+        GameSession.Outcome outcome = !parsed
+                ? (c.session.isPlaying() ? GameSession.Outcome.INVALID : GameSession.Outcome.NOT_PLAYING)
+                : c.session.guess(value, now);
+        if (outcome != GameSession.Outcome.INVALID && outcome != GameSession.Outcome.NOT_PLAYING) {
+            guesses.increment();
+            if (recorder != null) {
+                recorder.recordGuess(c.sessionId, now, c.session, value, outcome);
+            }
+        }
+        switch (outcome) {
+            case TOO_LOW -> {
+                reply(c, GREATER);
+                replyInt(c, c.session.attemptsLeft(), '\n');
+            }
+            case TOO_HIGH -> {
+                reply(c, LESSER);
+                replyInt(c, c.session.attemptsLeft(), '\n');
+            }
+            case WON -> {
+                stopPlaying(c, now);
+                reply(c, WIN);
+                replyInt(c, c.session.score(), '\n');
+            }
+            case LOST -> {
+                stopPlaying(c, now);
+                reply(c, LOSE);
+                replyInt(c, c.session.secretNumber(), '\n');
+            }
+            case INVALID -> {
+                reply(c, INVALID);
+                replyInt(c, range.min(), ' ');
+                replyInt(c, range.max(), '\n');
+            }
+            case TIMED_OUT -> {
+                stopPlaying(c, now);
+                reply(c, TIMEOUT);
+                replyInt(c, c.session.secretNumber(), '\n');
+            }
+            case NOT_PLAYING -> reply(c, DONE);
+        }
+        if (outcome != GameSession.Outcome.NOT_PLAYING) {
+            metrics.guessed(System.nanoTime() - now, now);
+            if (event.shouldCommit()) {
+                event.source = GameEvents.SERVER;
+                event.offering = value;
+                event.outcome = outcome.name();
+                event.torchesLeft = c.session.attemptsLeft();
+                event.commit();
+            }
+        }
+    }
+
+    private void suspend(Connection c) {
+        long now = System.nanoTime();
+        if (!c.session.isPlaying()) {
+            reply(c, DONE);
+            return;
+        }
+        if (!c.session.suspend(now)) {
+            timedOut(c, now);
+            return;
+        }
+        if (recorder != null) {
+            recorder.recordSuspend(c.sessionId, now, c.session);
+        }
+        c.deadline.cancel();
+        c.deadline = null;
+        long handle = parked.park(c.session, c.sessionId, now);
+        if (handle == ParkedSessionStore.NO_HANDLE) {
+            // Nowhere to put it, so the game simply goes on.
+            c.session.resume(now);
+            if (recorder != null) {
+                recorder.recordResume(c.sessionId, now, c.session);
+            }
+            scheduleDeadline(c);
+            reply(c, ERR_FULL);
+            return;
+        }
+        reply(c, PARKED);
+        replyInt(c, handle, '\n');
+    }
+
+    // Like START, resuming ends any game the connection is playing.
+    private void resume(Connection c, byte[] line, int from, int to) {
+        long now = System.nanoTime();
+        if (!parser.parse(line, from, to) || !parked.isParked(parser.value())) {
+            reply(c, ERR_TOKEN);
+            return;
+        }
+        stopPlaying(c, now);
+        c.sessionId = parked.unpark(parser.value(), c.session);
+        c.session.resume(now);
+        if (recorder != null) {
+            recorder.recordResume(c.sessionId, now, c.session);
+        }
+        scheduleDeadline(c);
+        replyReady(c, now);
+    }
+
+    private void timedOut(Connection c, long now) {
+        if (recorder != null) {
+            recorder.recordTimeout(c.sessionId, now, c.session);
+        }
+        stopPlaying(c, now);
+        reply(c, TIMEOUT);
+        replyInt(c, c.session.secretNumber(), '\n');
+    }
+
+    // Deadlines fire on the wheel thread; the session itself is only touched here.
+    private void drainExpired() {
+        long now = System.nanoTime();
+        Connection c;
+        while ((c = expired.poll()) != null) {
+            if (!c.key.isValid() || !c.session.expire(now)) {
+                continue;
+            }
+            timedOut(c, now);
+            try {
+                flush(c);
+            } catch (IOException e) {
+                disconnect(c);
+            }
+        }
+    }
+
+    private void scheduleParkSweep() {
+        deadlines.schedule(System.nanoTime() + PARK_SWEEP_NANOS, () -> {
+            parkSweepDue = true;
+            selector.wakeup();
+        });
+    }
+
+    // Without an expiry, START and SUSPEND in a loop would fill the store for good.
+    private void expireParked(long now) {
+        long sessionId;
+        while ((sessionId = parked.unparkOldest(now - PARK_TTL_NANOS, unparked)) != ParkedSessionStore.UNKNOWN) {
+            unparked.expireSuspended(now);
+            sessionsFinished.increment();
+            metrics.sessionEnded(unparked.state());
+            GameEvents.SessionEnd.emit(GameEvents.SERVER, unparked, now);
+            if (recorder != null) {
+                recorder.recordTimeout(sessionId, now, unparked);
+                recorder.recordEnd(sessionId, now, unparked);
+            }
+        }
+    }
+
+    private void stopPlaying(Connection c, long now) {
+        if (c.deadline == null) {
+            return;
+        }
+        c.deadline.cancel();
+        c.deadline = null;
+        sessionsFinished.increment();
+        metrics.sessionEnded(c.session.state());
+        GameEvents.SessionEnd.emit(GameEvents.SERVER, c.session, now);
+        if (recorder != null) {
+            recorder.recordEnd(c.sessionId, now, c.session);
+        }
+    }
+
+    private void reply(Connection c, byte[] bytes) {
+        if (c.out.remaining() < bytes.length) {
+            c.overflowed = true;
+            return;
+        }
+        c.out.put(bytes);
+    }
+
+    private void replyInt(Connection c, long value, char terminator) {
+        if (c.out.remaining() < 21) {
+            c.overflowed = true;
+            return;
+        }
+        putLong(c.out, value);
+        c.out.put((byte) terminator);
+    }
+
+    private void flush(Connection c) throws IOException {
+        if (c.overflowed) {
+            disconnect(c);
+            return;
+        }
+        if (!c.key.isValid()) {
+            return;
+        }
+        c.out.flip();
+        c.channel.write(c.out);
+        c.out.compact();
+        int ops = c.out.position() > 0 ? SelectionKey.OP_READ | SelectionKey.OP_WRITE : SelectionKey.OP_READ;
+        if (c.key.interestOps() != ops) {
+            c.key.interestOps(ops);
+        }
+    }
+
+    private void disconnect(Connection c) {
+        stopPlaying(c, System.nanoTime());
+        c.key.cancel();
+        try {
+            c.channel.close();
+        } catch (IOException ignored) {
+            // the peer is gone either way
+        }
+    }
+
+    public long connections() {
+        return connections.sum();
+    }
+
+    public long sessionsStarted() {
+        return sessionsStarted.sum();
+    }
+
+    public long sessionsFinished() {
+        return sessionsFinished.sum();
+    }
+
+    public long guesses() {
+        return guesses.sum();
+    }
+
+    private static Difficulty parseDifficulty(byte[] line, int from, int to) {
+        int i = skipSpaces(line, from, to);
+        if (i >= to) {
+            return Difficulty.MEDIUM;
+        }
+        return switch (Character.toUpperCase((char) line[i])) {
+            case 'E' -> Difficulty.EASY;
+            case 'H' -> Difficulty.HARD;
+            default -> Difficulty.MEDIUM;
+        };
+    }
+
+    private static int skipSpaces(byte[] line, int from, int to) {
+        int i = from;
+        while (i < to && line[i] == ' ') {
+            i++;
+        }
+        return i;
+    }
+
+    static boolean startsWith(byte[] line, int from, int to, String word) {
+        int n = word.length();
+        if (to - from < n) {
+            return false;
+        }
+        for (int i = 0; i < n; i++) {
+            if (Character.toUpperCase((char) line[from + i]) != word.charAt(i)) {
+                return false;
+            }
+        }
+        return to - from == n || line[from + n] == ' ';
+    }
+
+    static void putLong(ByteBuffer out, long value) {
+        if (value < 0) {
+            out.put((byte) '-');
+            if (value == Long.MIN_VALUE) {
+                out.put(ascii("9223372036854775808"));
+                return;
+            }
+            value = -value;
+        }
+        long divisor = 1;
+        while (divisor <= value / 10) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            out.put((byte) ('0' + (value / divisor) % 10));
+        }
+    }
+
+    static byte[] ascii(String s) {
+        return s.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static final class Connection {
+        final SocketChannel channel;
+        final ByteBuffer in = ByteBuffer.allocate(MAX_LINE);
+        final ByteBuffer out = ByteBuffer.allocate(OUT_CAPACITY);
+        final GameSession session = new GameSession();
+        SelectionKey key;
+        TimingWheel.Timeout deadline;
+        long sessionId;
+        boolean overflowed;
+
+        Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package temple;
+
+import java.util.concurrent.TimeUnit;
+import java.util.random.RandomGenerator;
+
+/**
+ * The rules of one riddle, free of any Swing state. The frame, the simulator and
+ * anything else that wants to play a game drives an instance of this class.
+ * Time is a deadline on the {@link System#nanoTime()} clock rather than a
+ * counter, so callers pass the current time and nothing has to tick.
+ * The secret is drawn from a {@link SecretRange}, {@link SecretRange#CLASSIC}
+ * unless the caller chooses another.
+ * Not thread-safe: a session belongs to whichever thread is playing it.
+ */
+public final class GameSession {
+    /** Torches for the classic range; wider ranges grant more, see {@link SecretRange#attempts()}. */
+    public static final int MAX_ATTEMPTS = 4;
+    public static final int TIME_LIMIT_EASY = 60;
+    public static final int TIME_LIMIT_MEDIUM = 45;
+    public static final int TIME_LIMIT_HARD = 30;
+    public static final int TIME_WARNING_THRESHOLD = 10;
+    public static final int MIN_NUMBER = 1;
+    public static final int MAX_NUMBER = 50;
+    public static final int POINTS_PER_SECOND = 10;
+    public static final int MAX_SCORE = TIME_LIMIT_EASY * POINTS_PER_SECOND;
+    private static final long SECOND_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    /** SUSPENDED games keep their torches and elapsed time but no clock runs; see {@link #suspend}. */
+    public enum State { IDLE, PLAYING, WON, LOST, TIMED_OUT, SUSPENDED }
+
+    public enum Outcome {
+        /** The offering was outside the sacred range; no torch was spent. */
+        INVALID,
+        /** The sacred number is greater than the offering. */
+        TOO_LOW,
+        /** The sacred number is lesser than the offering. */
+        TOO_HIGH,
+        WON,
+        /** The last torch burned out on a wrong offering. */
+        LOST,
+        /** The offering arrived after the deadline; the session has now timed out. */
+        TIMED_OUT,
+        /** The session is not being played. */
+        NOT_PLAYING
+    }
+
+    private Difficulty difficulty = Difficulty.MEDIUM;
+    private State state = State.IDLE;
+    private SecretRange range = SecretRange.CLASSIC;
+    private long secretNumber;
+    private int attemptsLeft;
+    private int score;
+    private long startNanos;
+    private long deadlineNanos;
+    private long lastGuess;
+    private long suspendedElapsed;
+
+    public void start(Difficulty difficulty, RandomGenerator random, long nowNanos) {
+        start(difficulty, SecretRange.CLASSIC, random.nextLong(), nowNanos);
+    }
+
+    /** Starts a classic game whose secret is fully determined by {@code seed}, so it can be replayed. */
+    public void start(Difficulty difficulty, long seed, long nowNanos) {
+        start(difficulty, SecretRange.CLASSIC, seed, nowNanos);
+    }
+
+    /** Starts a game over {@code range} whose secret is fully determined by {@code seed}. */
+    public void start(Difficulty difficulty, SecretRange range, long seed, long nowNanos) {
+        startWithSecret(difficulty, range, range.secret(seed), nowNanos);
+    }
+
+    /** Starts a game with a known secret, e.g. when replaying logs written before seeds were mixed. */
+    public void startWithSecret(Difficulty difficulty, SecretRange range, long secret, long nowNanos) {
+        if (!range.contains(secret)) {
+            throw new IllegalArgumentException("Secret " + secret + " outside " + range);
+        }
+        this.difficulty = difficulty;
+        this.range = range;
+        attemptsLeft = range.attempts();
+        score = 0;
+        startNanos = nowNanos;
+        deadlineNanos = nowNanos + difficulty.timeLimit() * SECOND_NANOS;
+        lastGuess = 0;
+        secretNumber = secret;
+        state = State.PLAYING;
+    }
+
+    public Outcome guess(long guess, long nowNanos) {
+        if (state != State.PLAYING) {
+            return Outcome.NOT_PLAYING;
+        }
+        if (expire(nowNanos)) {
+            return Outcome.TIMED_OUT;
+        }
+        if (!range.contains(guess)) {
+            return Outcome.INVALID;
+        }
+
+        attemptsLeft--;
+        lastGuess = guess;
+
+        if (guess == secretNumber) {
+            score += timeLeft(nowNanos) * POINTS_PER_SECOND;
+            state = State.WON;
+            return Outcome.WON;
+        }
+        if (attemptsLeft == 0) {
+            state = State.LOST;
+            return Outcome.LOST;
+        }
+        return guess < secretNumber ? Outcome.TOO_LOW : Outcome.TOO_HIGH;
+    }
+
+    /**
+     * Ends the session if its deadline has passed. Returns true only for the
+     * call that timed it out, so a stale expiry callback for an earlier game
+     * is harmless.
+     */
+    public boolean expire(long nowNanos) {
+        if (state != State.PLAYING || nowNanos - deadlineNanos < 0) {
+            return false;
+        }
+        state = State.TIMED_OUT;
+        return true;
+    }
+
+    /**
+     * Stops the clock so the game can continue later with {@link #resume}.
+     * Returns false, changing nothing, if the game is not being played; a game
+     * whose deadline has already passed times out instead.
+     */
+    public boolean suspend(long nowNanos) {
+        if (state != State.PLAYING || expire(nowNanos)) {
+            return false;
+        }
+        suspendedElapsed = Math.max(0, nowNanos - startNanos);
+        state = State.SUSPENDED;
+        return true;
+    }
+
+    /** Restarts the clock of a suspended game with the time it had already used. */
+    public boolean resume(long nowNanos) {
+        if (state != State.SUSPENDED) {
+            return false;
+        }
+        startNanos = nowNanos - suspendedElapsed;
+        deadlineNanos = startNanos + difficulty.timeLimit() * SECOND_NANOS;
+        state = State.PLAYING;
+        return true;
+    }
+
+    /**
+     * Times out a suspended game that will never be resumed, such as one left
+     * parked too long, so it ends like any other game that ran out of time.
+     */
+    public boolean expireSuspended(long nowNanos) {
+        if (state != State.SUSPENDED) {
+            return false;
+        }
+        startNanos = nowNanos - suspendedElapsed;
+        state = State.TIMED_OUT;
+        return true;
+    }
+
+    /** Loads a suspended game saved elsewhere, such as a {@link ParkedSessionStore}. */
+    public void restoreSuspended(Difficulty difficulty, SecretRange range, long secret, int attemptsLeft,
+                                 int score, long lastGuess, long elapsedNanos) {
+        this.difficulty = difficulty;
+        this.range = range;
+        secretNumber = secret;
+        this.attemptsLeft = attemptsLeft;
+        this.score = score;
+        this.lastGuess = lastGuess;
+        suspendedElapsed = elapsedNanos;
+        state = State.SUSPENDED;
+    }
+
+    /**
+     * Whole seconds left on the clock: the time limit less every second that
+     * has fully elapsed, as the original one-second countdown reported it.
+     */
+    public int timeLeft(long nowNanos) {
+        long elapsed = Math.max(0, nowNanos - startNanos);
+        return (int) Math.max(0, difficulty.timeLimit() - elapsed / SECOND_NANOS);
+    }
+
+    /** Fraction of the time limit still remaining, for smooth progress displays. */
+    public double timeFraction(long nowNanos) {
+        long total = deadlineNanos - startNanos;
+        return Math.max(0, Math.min(1, (double) (deadlineNanos - nowNanos) / total));
+    }
+
+    public boolean isPlaying() {
+        return state == State.PLAYING;
+    }
+
+    public boolean isTimeRunningOut(long nowNanos) {
+        return timeLeft(nowNanos) <= TIME_WARNING_THRESHOLD;
+    }
+
+    public State state() {
+        return state;
+    }
+
+    public Difficulty difficulty() {
+        return difficulty;
+    }
+
+    public SecretRange range() {
+        return range;
+    }
+
+    public long secretNumber() {
+        return secretNumber;
+    }
+
+    public int attemptsLeft() {
+        return attemptsLeft;
+    }
+
+    public int torchesUsed() {
+        return range.attempts() - attemptsLeft;
+    }
+
+    public int score() {
+        return score;
+    }
+
+    public long startNanos() {
+        return startNanos;
+    }
+
+    public long deadlineNanos() {
+        return deadlineNanos;
+    }
+
+    public long lastGuess() {
+        return lastGuess;
+    }
+
+    /** Time already used by a suspended game. */
+    public long suspendedElapsedNanos() {
+        return suspendedElapsed;
+    }
+}
@@ -0,0 +1,539 @@
+package temple;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Replicates a {@link TopScores} hall between kiosks by gossip over UDP, with
+ * no central server. Every round a node sends a digest of its hall to a few
+ * random peers; a peer whose hall differs answers with the entries that could
+ * still enter the sender's hall and asks for the sender's in return. Scores
+ * earned locally since the last round ride along in one batch. Once the halls
+ * agree, a round costs each node a fixed number of digest datagrams, however
+ * many nodes there are. Lost datagrams are repaired by the next round.
+ *
+ * <p>An entry's sequence number is which copy of that score it is on its
+ * node: the third 500 earned at a kiosk is always (500, node, 2). A kiosk
+ * keeps its node id in {@code gossip.node} beside its score history and
+ * {@link #seed seeds} the hall from that history at startup. The same games
+ * therefore come back as the same entries, and a restart merges with what
+ * its peers still hold instead of counting those games twice. Node ids are
+ * drawn from {@link SecureRandom}, not {@link Seeds}, so kiosks run with the
+ * same {@code -Dtemple.seed} still get different ids.
+ *
+ * <p>A peer that cannot be reached, or whose name does not resolve, only
+ * costs the datagrams sent to it; failures are counted per peer and the
+ * first one is reported. After a stall the node skips the rounds it missed
+ * rather than sending them in a burst.
+ *
+ * <p>Datagrams start with a type byte:
+ * <pre>
+ * DIGEST, DIGEST_REPLY: digest (long), floor (zigzag varint)
+ * DELTA:                varint n, n node ids (long), varint m, then m entries
+ *                       highest first: score as the drop from the previous
+ *                       entry's score, node index and sequence, all varints
+ * </pre>
+ *
+ * <pre>java temple.GossipNode port peer[,peer...] [scoresPerSecond] [seconds]</pre>
+ *
+ * A peer is {@code host:port} or just a loopback port. The kiosk gossips when
+ * started with {@code -Dtemple.gossip.port=n -Dtemple.gossip.peers=...}.
+ */
+public final class GossipNode implements Runnable, Closeable {
+    public static final int HALL_SIZE = 10;
+    /** Largest hall whose full delta still fits in one datagram. */
+    public static final int MAX_HALL_SIZE = 48;
+    private static final int FANOUT = 2;
+    private static final long ROUND_NANOS = TimeUnit.MILLISECONDS.toNanos(200);
+    private static final int MAX_DATAGRAM = 1400;
+    private static final byte DIGEST = 1;
+    private static final byte DIGEST_REPLY = 2;
+    private static final byte DELTA = 3;
+    private static final int NODE_FILE_MAGIC = 0x54474E44; // "TGND"
+
+    private final long nodeId;
+    private final TopScores hall;
+    private final InetSocketAddress[] peers;
+    private final Runnable onChange;
+    private final DatagramChannel channel;
+    private final Selector selector;
+    private final SplittableRandom random;
+    private final ByteBuffer in = ByteBuffer.allocate(MAX_DATAGRAM);
+    private final ByteBuffer out = ByteBuffer.allocate(MAX_DATAGRAM);
+    private volatile boolean running = true;
+
+    // Scores earned here since the last round, and how many of each score
+    // this node has earned so far; guarded by this.
+    private TopScores pending;
+    private int[] copies = new int[0];
+
+    // Delta scratch, gossip thread only.
+    private final int[] deltaScores;
+    private final long[] deltaNodes;
+    private final int[] deltaSeqs;
+    private int deltaCount;
+    private final long[] nodeTable;
+    private final int[] nodeIndex;
+    private final long[] peerFailures;
+
+    private final LongAdder datagramsSent = new LongAdder();
+    private final LongAdder bytesSent = new LongAdder();
+    private final LongAdder datagramsReceived = new LongAdder();
+    private final LongAdder entriesMerged = new LongAdder();
+    private final LongAdder sendFailures = new LongAdder();
+
+    /** Binds {@code bind} and gossips with {@code peers}; {@code onChange} runs on the gossip thread. */
+    public GossipNode(InetSocketAddress bind, InetSocketAddress[] peers, int hallSize, Runnable onChange) throws IOException {
+        this(bind, peers, hallSize, newNodeId(), onChange);
+    }
+
+    /** Like the other constructor, for a node whose id was kept from an earlier run. */
+    public GossipNode(InetSocketAddress bind, InetSocketAddress[] peers, int hallSize, long nodeId,
+                      Runnable onChange) throws IOException {
+        if (hallSize < 1 || hallSize > MAX_HALL_SIZE) {
+            throw new IllegalArgumentException("hallSize=" + hallSize);
+        }
+        this.random = new SplittableRandom(Seeds.next());
+        this.nodeId = nodeId;
+        this.hall = new TopScores(hallSize);
+        this.pending = new TopScores(hallSize);
+        this.peers = peers.clone();
+        this.peerFailures = new long[peers.length];
+        this.onChange = onChange;
+        this.deltaScores = new int[hallSize];
+        this.deltaNodes = new long[hallSize];
+        this.deltaSeqs = new int[hallSize];
+        // A peer's hall may be larger than ours; its node table must still fit.
+        this.nodeTable = new long[MAX_HALL_SIZE];
+        this.nodeIndex = new int[hallSize];
+        this.selector = Selector.open();
+        this.channel = DatagramChannel.open();
+        channel.bind(bind);
+        channel.configureBlocking(false);
+        channel.register(selector, SelectionKey.OP_READ);
+    }
+
+    /**
+     * A node configured by {@code temple.gossip.port} and {@code temple.gossip.peers},
+     * bound to {@code temple.gossip.host} (loopback by default), or null if no port is set.
+     * The node id is kept in {@code dataDir}; with a null {@code dataDir} it is new every run.
+     */
+    public static GossipNode fromProperties(Path dataDir, Runnable onChange) throws IOException {
+        Integer port = Integer.getInteger("temple.gossip.port");
+        if (port == null) {
+            return null;
+        }
+        String host = System.getProperty("temple.gossip.host", "127.0.0.1");
+        return new GossipNode(new InetSocketAddress(host, port),
+                parsePeers(System.getProperty("temple.gossip.peers", "")), HALL_SIZE,
+                dataDir == null ? newNodeId() : nodeId(dataDir), onChange);
+    }
+
+    /** The node id saved in {@code dir}, choosing and saving a new one the first time. */
+    public static long nodeId(Path dir) throws IOException {
+        Path file = dir.resolve("gossip.node");
+        ByteBuffer buf = ByteBuffer.allocate(12);
+        if (Files.exists(file)) {
+            try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+                while (buf.hasRemaining() && in.read(buf) > 0) {
+                    // keep reading
+                }
+            }
+            if (!buf.hasRemaining() && buf.getInt(0) == NODE_FILE_MAGIC) {
+                return buf.getLong(4);
+            }
+            System.err.println("Ignoring unreadable " + file + "; this kiosk joins the hall as a new node");
+        }
+        long id = newNodeId();
+        buf.clear();
+        buf.putInt(NODE_FILE_MAGIC).putLong(id).flip();
+        Files.createDirectories(dir);
+        Path tmp = file.resolveSibling("gossip.node.tmp");
+        try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buf.hasRemaining()) {
+                out.write(buf);
+            }
+            out.force(true);
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return id;
+    }
+
+    private static long newNodeId() {
+        return new SecureRandom().nextLong();
+    }
+
+    public static InetSocketAddress[] parsePeers(String list) {
+        List<InetSocketAddress> peers = new ArrayList<>();
+        for (String peer : list.split(",")) {
+            String p = peer.trim();
+            if (p.isEmpty()) {
+                continue;
+            }
+            int colon = p.lastIndexOf(':');
+            peers.add(colon < 0
+                    ? new InetSocketAddress("127.0.0.1", Integer.parseInt(p))
+                    : new InetSocketAddress(p.substring(0, colon), Integer.parseInt(p.substring(colon + 1))));
+        }
+        return peers.toArray(new InetSocketAddress[0]);
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 2) {
+            System.err.println("usage: java temple.GossipNode port peer[,peer...] [scoresPerSecond] [seconds]");
+            return;
+        }
+        int port = Integer.parseInt(args[0]);
+        InetSocketAddress[] peers = parsePeers(args[1]);
+        double rate = args.length > 2 ? Double.parseDouble(args[2]) : 5;
+        int seconds = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+
+        GossipNode node = new GossipNode(new InetSocketAddress("127.0.0.1", port), peers, HALL_SIZE, () -> { });
+        Thread thread = new Thread(node, "gossip");
+        thread.start();
+
+        // Post random treasure for a while, then keep gossiping so the halls can settle.
+        SplittableRandom random = new SplittableRandom(Seeds.next());
+        long started = System.nanoTime();
+        long posting = started + TimeUnit.SECONDS.toNanos(seconds);
+        long end = posting + TimeUnit.SECONDS.toNanos(5);
+        long posted = 0;
+        long nextReport = started + TimeUnit.SECONDS.toNanos(1);
+        long lastBytes = 0;
+        while (System.nanoTime() < end) {
+            long now = System.nanoTime();
+            if (now < posting && posted < (now - started) / 1e9 * rate) {
+                node.record(random.nextInt(GameSession.MAX_SCORE + 1));
+                posted++;
+            }
+            if (now >= nextReport) {
+                long bytes = node.bytesSent.sum();
+                System.out.printf("node %d: %s, %d B/s out%n", port, node.summary(), bytes - lastBytes);
+                lastBytes = bytes;
+                nextReport += TimeUnit.SECONDS.toNanos(1);
+            }
+            Thread.sleep(rate > 0 ? Math.max(1, (long) (1000 / rate / 4)) : 50);
+        }
+        System.out.printf("node %d final: posted %d, hall %s%n", port, posted, Arrays.toString(node.hall.topScores()));
+        node.close();
+        thread.join();
+    }
+
+    /** Adds a score earned on this node to the hall and queues it for the next round. */
+    public void record(int score) {
+        boolean changed;
+        synchronized (this) {
+            growCopies(score);
+            changed = add(score, copies[score]++);
+        }
+        if (changed) {
+            onChange.run();
+        }
+    }
+
+    /**
+     * Adds the first {@code count} copies of {@code score} earned on this node,
+     * as read back from its score history, and counts them as already earned.
+     * Copies the hall already holds are not added again, so seeding with the
+     * same history twice changes nothing.
+     */
+    public void seed(int score, long count) {
+        boolean changed = false;
+        synchronized (this) {
+            growCopies(score);
+            int seeded = (int) Math.min(count, Integer.MAX_VALUE);
+            // No more than a hall's worth of one score can be in the hall.
+            for (int seq = 0; seq < Math.min(seeded, hall.capacity()); seq++) {
+                changed |= add(score, seq);
+            }
+            copies[score] = Math.max(copies[score], seeded);
+        }
+        if (changed) {
+            onChange.run();
+        }
+    }
+
+    // Caller holds this.
+    private boolean add(int score, int seq) {
+        boolean changed = hall.add(score, nodeId, seq);
+        if (changed) {
+            pending.add(score, nodeId, seq);
+        }
+        return changed;
+    }
+
+    private void growCopies(int score) {
+        if (score < 0) {
+            throw new IllegalArgumentException("score=" + score);
+        }
+        if (score >= copies.length) {
+            copies = Arrays.copyOf(copies, Math.max(score + 1, 2 * copies.length));
+        }
+    }
+
+    public long nodeId() {
+        return nodeId;
+    }
+
+    public TopScores hall() {
+        return hall;
+    }
+
+    @Override
+    public void run() {
+        long nextRound = System.nanoTime();
+        try {
+            while (running) {
+                long wait = TimeUnit.NANOSECONDS.toMillis(nextRound - System.nanoTime());
+                if (wait > 0) {
+                    selector.select(wait);
+                    selector.selectedKeys().clear();
+                }
+                receive();
+                long now = System.nanoTime();
+                if (now - nextRound >= 0) {
+                    round();
+                    nextRound += ROUND_NANOS;
+                    if (now - nextRound >= 0) {
+                        // Behind by a whole round or more: drop the missed rounds.
+                        nextRound = now + ROUND_NANOS;
+                    }
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Gossip stopped: " + e);
+        } finally {
+            try {
+                channel.close();
+                selector.close();
+            } catch (IOException ignored) {
+                // Nothing left to do with them.
+            }
+        }
+    }
+
+    private void round() throws IOException {
+        if (peers.length == 0) {
+            return;
+        }
+        TopScores batch;
+        synchronized (this) {
+            batch = pending;
+            if (batch.size() > 0) {
+                pending = new TopScores(hall.capacity());
+            }
+        }
+        for (int i = 0; i < Math.min(FANOUT, peers.length); i++) {
+            InetSocketAddress peer = peers[random.nextInt(peers.length)];
+            if (batch.size() > 0) {
+                sendDelta(peer, batch, Integer.MIN_VALUE);
+            }
+            sendDigest(peer, DIGEST);
+        }
+    }
+
+    private void receive() throws IOException {
+        SocketAddress from;
+        while ((from = channel.receive(in)) != null) {
+            in.flip();
+            datagramsReceived.increment();
+            try {
+                handle(from);
+            } catch (RuntimeException e) {
+                // A malformed datagram; drop it and keep gossiping.
+            }
+            in.clear();
+        }
+    }
+
+    private void handle(SocketAddress from) throws IOException {
+        byte type = in.get();
+        switch (type) {
+            case DIGEST, DIGEST_REPLY -> {
+                long digest = in.getLong();
+                int floor = unzigzag(getVarint(in));
+                if (digest != hall.digest()) {
+                    sendDelta(from, hall, floor);
+                    if (type == DIGEST) {
+                        sendDigest(from, DIGEST_REPLY);
+                    }
+                }
+            }
+            case DELTA -> {
+                long nodeCount = getVarint(in);
+                if (nodeCount < 0 || nodeCount > nodeTable.length) {
+                    throw new IllegalArgumentException("nodes=" + nodeCount);
+                }
+                for (int i = 0; i < nodeCount; i++) {
+                    nodeTable[i] = in.getLong();
+                }
+                long entries = getVarint(in);
+                // Every entry takes at least three bytes.
+                if (entries < 0 || entries > in.remaining() / 3) {
+                    throw new IllegalArgumentException("entries=" + entries);
+                }
+                int added = 0;
+                int score = 0;
+                for (int i = 0; i < entries; i++) {
+                    long drop = getVarint(in);
+                    score = i == 0 ? (int) drop : score - (int) drop;
+                    long node = getVarint(in);
+                    int seq = (int) getVarint(in);
+                    if (node < 0 || node >= nodeCount) {
+                        throw new IllegalArgumentException("node index " + node);
+                    }
+                    if (hall.add(score, nodeTable[(int) node], seq)) {
+                        added++;
+                    }
+                }
+                if (added > 0) {
+                    entriesMerged.add(added);
+                    onChange.run();
+                }
+            }
+            default -> { }
+        }
+    }
+
+    private void sendDigest(SocketAddress to, byte type) throws IOException {
+        out.clear();
+        out.put(type);
+        out.putLong(hall.digest());
+        putVarint(out, zigzag(hall.floor()));
+        send(to);
+    }
+
+    // The entries of source that could enter a hall whose floor is minScore.
+    private void sendDelta(SocketAddress to, TopScores source, int minScore) throws IOException {
+        deltaCount = 0;
+        source.forEach(minScore, this::collect);
+        if (deltaCount == 0) {
+            return;
+        }
+        out.clear();
+        out.put(DELTA);
+        // Each node id is sent once; entries refer to it by index.
+        int nodeCount = 0;
+        for (int i = 0; i < deltaCount; i++) {
+            int n = 0;
+            while (n < nodeCount && nodeTable[n] != deltaNodes[i]) {
+                n++;
+            }
+            if (n == nodeCount) {
+                nodeTable[nodeCount++] = deltaNodes[i];
+            }
+            nodeIndex[i] = n;
+        }
+        putVarint(out, nodeCount);
+        for (int n = 0; n < nodeCount; n++) {
+            out.putLong(nodeTable[n]);
+        }
+        putVarint(out, deltaCount);
+        for (int i = 0; i < deltaCount; i++) {
+            putVarint(out, i == 0 ? deltaScores[0] : deltaScores[i - 1] - deltaScores[i]);
+            putVarint(out, nodeIndex[i]);
+            putVarint(out, deltaSeqs[i] & 0xFFFFFFFFL);
+        }
+        send(to);
+    }
+
+    private void collect(int score, long node, int seq) {
+        deltaScores[deltaCount] = score;
+        deltaNodes[deltaCount] = node;
+        deltaSeqs[deltaCount] = seq;
+        deltaCount++;
+    }
+
+    private void send(SocketAddress to) throws IOException {
+        out.flip();
+        int bytes = out.remaining();
+        try {
+            channel.send(out, to);
+        } catch (ClosedChannelException e) {
+            throw e;
+        } catch (IOException | RuntimeException e) {
+            sendFailed(to, e);
+            return;
+        }
+        datagramsSent.increment();
+        bytesSent.add(bytes);
+    }
+
+    private void sendFailed(SocketAddress to, Exception e) {
+        sendFailures.increment();
+        for (int i = 0; i < peers.length; i++) {
+            if (peers[i].equals(to)) {
+                if (peerFailures[i]++ == 0) {
+                    System.err.println("Gossip to " + to + " failing: " + e);
+                }
+                return;
+            }
+        }
+    }
+
+    /** Sends to the {@code peer}th configured peer that failed; read it from the gossip thread or once it has stopped. */
+    long sendFailures(int peer) {
+        return peerFailures[peer];
+    }
+
+    static void putVarint(ByteBuffer buf, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buf.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buf.put((byte) value);
+    }
+
+    static long getVarint(ByteBuffer buf) {
+        long value = 0;
+        for (int shift = 0; shift < Long.SIZE; shift += 7) {
+            byte b = buf.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("varint too long");
+    }
+
+    static long zigzag(int value) {
+        return ((value << 1) ^ (value >> 31)) & 0xFFFFFFFFL;
+    }
+
+    static int unzigzag(long value) {
+        int v = (int) value;
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    public String summary() {
+        return String.format("hall digest=%016x size=%d best=%d; datagrams sent=%d received=%d, %d bytes sent, %d entries merged, %d sends failed",
+                hall.digest(), hall.size(), hall.best(), datagramsSent.sum(), datagramsReceived.sum(),
+                bytesSent.sum(), entriesMerged.sum(), sendFailures.sum());
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        selector.wakeup();
+    }
+}
@@ -0,0 +1,93 @@
+package temple;
+
+/**
+ * Parses offerings without allocating: a signed decimal that fits in a
+ * {@code long}, with optional surrounding spaces. Reads straight from the
+ * server's line buffer or from a text field's document segment. Every
+ * {@code long} is a possible offering, so the result is reported separately
+ * from the value. Not thread-safe; give each thread its own parser.
+ */
+public final class GuessParser {
+    private long value;
+
+    /** Returns whether {@code text} held a number; if so it is {@link #value()}. */
+    public boolean parse(CharSequence text) {
+        return parse(text, 0, text.length());
+    }
+
+    public boolean parse(CharSequence text, int from, int to) {
+        int i = from;
+        int end = to;
+        while (i < end && Character.isWhitespace(text.charAt(i))) {
+            i++;
+        }
+        while (end > i && Character.isWhitespace(text.charAt(end - 1))) {
+            end--;
+        }
+        if (i >= end) {
+            return false;
+        }
+        char sign = text.charAt(i);
+        boolean negative = sign == '-';
+        if (negative || sign == '+') {
+            i++;
+        }
+        if (i >= end) {
+            return false;
+        }
+        // Accumulate downwards so Long.MIN_VALUE, which has no positive twin, parses too.
+        long result = 0;
+        for (; i < end; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9 || result < (Long.MIN_VALUE + digit) / 10) {
+                return false;
+            }
+            result = result * 10 - digit;
+        }
+        return finish(result, negative);
+    }
+
+    /** Parses ASCII bytes {@code from..to}; only spaces are trimmed. */
+    public boolean parse(byte[] ascii, int from, int to) {
+        int i = from;
+        int end = to;
+        while (i < end && ascii[i] == ' ') {
+            i++;
+        }
+        while (end > i && ascii[end - 1] == ' ') {
+            end--;
+        }
+        if (i >= end) {
+            return false;
+        }
+        boolean negative = ascii[i] == '-';
+        if (negative || ascii[i] == '+') {
+            i++;
+        }
+        if (i >= end) {
+            return false;
+        }
+        long result = 0;
+        for (; i < end; i++) {
+            int digit = ascii[i] - '0';
+            if (digit < 0 || digit > 9 || result < (Long.MIN_VALUE + digit) / 10) {
+                return false;
+            }
+            result = result * 10 - digit;
+        }
+        return finish(result, negative);
+    }
+
+    private boolean finish(long negated, boolean negative) {
+        if (!negative && negated == Long.MIN_VALUE) {
+            return false;
+        }
+        value = negative ? negated : -negated;
+        return true;
+    }
+
+    /** The number from the last successful parse. */
+    public long value() {
+        return value;
+    }
+}
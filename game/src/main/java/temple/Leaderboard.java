@@ -0,0 +1,152 @@
+package temple;
+
+import java.util.Arrays;
+
+/**
+ * Scores for the Hall of Explorers. Keeps the best {@code capacity} scores in a
+ * primitive min-heap (O(log k) insert) and a Fenwick tree of counts over the
+ * score range, so "what place is this score?" is O(log maxScore) however many
+ * games have been played. Memory is fixed at construction.
+ * Not thread-safe; the frame only touches it from the EDT.
+ */
+public final class Leaderboard {
+    private final int[] heap;
+    private int heapSize;
+    private final long[] tree;
+    private final int maxScore;
+    private long total;
+
+    public Leaderboard(int capacity, int maxScore) {
+        if (capacity < 1 || maxScore < 0) {
+            throw new IllegalArgumentException("capacity=" + capacity + " maxScore=" + maxScore);
+        }
+        this.heap = new int[capacity];
+        this.maxScore = maxScore;
+        this.tree = new long[maxScore + 2];
+    }
+
+    public void add(int score) {
+        add(score, 1);
+    }
+
+    /** Records {@code count} games that all ended with {@code score}. */
+    public void add(int score, long count) {
+        if (count <= 0) {
+            return;
+        }
+        int clamped = Math.max(0, Math.min(maxScore, score));
+        for (int i = clamped + 1; i < tree.length; i += i & -i) {
+            tree[i] += count;
+        }
+        total += count;
+
+        long copies = Math.min(count, heap.length);
+        for (long c = 0; c < copies; c++) {
+            offer(clamped);
+        }
+    }
+
+    /**
+     * Adds every score recorded by {@code other}, which must cover the same
+     * score range. Ranks come out exactly as if each game had been added here;
+     * the hall keeps the best of both halls. {@code other} is only read.
+     */
+    public void merge(Leaderboard other) {
+        if (other.maxScore != maxScore) {
+            throw new IllegalArgumentException("maxScore " + other.maxScore + " != " + maxScore);
+        }
+        // Fenwick trees are sums of counts, so they merge slot by slot.
+        for (int i = 0; i < tree.length; i++) {
+            tree[i] += other.tree[i];
+        }
+        total += other.total;
+        for (int i = 0; i < other.heapSize; i++) {
+            offer(other.heap[i]);
+        }
+    }
+
+    private void offer(int score) {
+        if (heapSize < heap.length) {
+            int i = heapSize++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (heap[parent] <= score) {
+                    break;
+                }
+                heap[i] = heap[parent];
+                i = parent;
+            }
+            heap[i] = score;
+        } else if (score > heap[0]) {
+            siftDown(score);
+        }
+    }
+
+    private void siftDown(int score) {
+        int i = 0;
+        int half = heapSize >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            int right = child + 1;
+            if (right < heapSize && heap[right] < heap[child]) {
+                child = right;
+            }
+            if (score <= heap[child]) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = score;
+    }
+
+    /** Number of recorded scores at or below {@code score}. */
+    private long countAtMost(int score) {
+        long sum = 0;
+        for (int i = Math.min(score, maxScore) + 1; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    /** The place {@code score} would take in the hall: one more than the number of strictly better scores. */
+    public long rank(int score) {
+        if (score > maxScore) {
+            return 1;
+        }
+        long atMost = score < 0 ? 0 : countAtMost(score);
+        return total - atMost + 1;
+    }
+
+    /** Best scores, highest first. */
+    public int[] topScores() {
+        int[] top = Arrays.copyOf(heap, heapSize);
+        Arrays.sort(top);
+        for (int i = 0, j = top.length - 1; i < j; i++, j--) {
+            int t = top[i];
+            top[i] = top[j];
+            top[j] = t;
+        }
+        return top;
+    }
+
+    public int best() {
+        int best = 0;
+        for (int i = 0; i < heapSize; i++) {
+            best = Math.max(best, heap[i]);
+        }
+        return best;
+    }
+
+    public long size() {
+        return total;
+    }
+
+    public int capacity() {
+        return heap.length;
+    }
+
+    public int maxScore() {
+        return maxScore;
+    }
+}
@@ -0,0 +1,18 @@
+package temple;
+
+/** Builds the Hall of Legendary Explorers message shown by the leaderboard dialog. */
+public final class LeaderboardText {
+    public static final String TITLE = "Hall of Legendary Explorers";
+
+    private LeaderboardText() {
+    }
+
+    /** One "rank. score" line per place, for a {@link TextBlock}. */
+    public static String[] lines(int[] topScores) {
+        String[] lines = new String[topScores.length];
+        for (int i = 0; i < topScores.length; i++) {
+            lines[i] = (i + 1) + ". " + topScores[i];
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,199 @@
+package temple;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drives a {@link GameServer} over loopback with many concurrent explorers,
+ * each playing binary-search games back to back, and reports sessions/sec and
+ * guess round-trip percentiles.
+ *
+ * <pre>java temple.LoadGenerator [host|embedded] [port] [connections] [seconds]</pre>
+ *
+ * With {@code embedded} the server runs in the same JVM on an ephemeral port,
+ * recording sessions if {@code -Dtemple.record.dir} is set.
+ */
+public final class LoadGenerator {
+    private static final byte[] START = GameServer.ascii("START MEDIUM\n");
+    private static final byte[] GUESS = GameServer.ascii("GUESS ");
+
+    private final LatencyHistogram guessLatency = new LatencyHistogram();
+    private final GuessParser parser = new GuessParser();
+    private long sessions;
+    private long guesses;
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        String host = args.length > 0 ? args[0] : "embedded";
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : GameServer.DEFAULT_PORT;
+        int connections = args.length > 2 ? Integer.parseInt(args[2]) : 10_000;
+        int seconds = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+
+        GameServer embedded = null;
+        Thread serverThread = null;
+        if (host.equals("embedded")) {
+            String recordDir = System.getProperty("temple.record.dir");
+            embedded = new GameServer(new InetSocketAddress("127.0.0.1", 0),
+                    recordDir == null ? null : new SessionRecorder(Path.of(recordDir), false));
+            serverThread = new Thread(embedded, "game-server");
+            serverThread.start();
+            host = "127.0.0.1";
+            port = embedded.port();
+        }
+
+        new LoadGenerator().run(new InetSocketAddress(host, port), connections, seconds);
+
+        if (embedded != null) {
+            embedded.close();
+            serverThread.join();
+        }
+    }
+
+    public void run(InetSocketAddress address, int connections, int seconds) throws IOException {
+        try (Selector selector = Selector.open()) {
+            for (int i = 0; i < connections; i++) {
+                SocketChannel channel = SocketChannel.open();
+                channel.configureBlocking(false);
+                channel.socket().setTcpNoDelay(true);
+                Explorer explorer = new Explorer(channel);
+                int ops = channel.connect(address) ? SelectionKey.OP_READ : SelectionKey.OP_CONNECT;
+                explorer.key = channel.register(selector, ops, explorer);
+                if (ops == SelectionKey.OP_READ) {
+                    send(explorer, START);
+                }
+            }
+
+            long started = System.nanoTime();
+            long deadline = started + TimeUnit.SECONDS.toNanos(seconds);
+            while (System.nanoTime() < deadline) {
+                selector.select(100);
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    Explorer explorer = (Explorer) key.attachment();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isConnectable()) {
+                        explorer.channel.finishConnect();
+                        key.interestOps(SelectionKey.OP_READ);
+                        send(explorer, START);
+                    } else if (key.isReadable()) {
+                        read(explorer);
+                    }
+                }
+            }
+            double elapsed = (System.nanoTime() - started) / 1e9;
+
+            for (SelectionKey key : selector.keys()) {
+                key.channel().close();
+            }
+            System.out.printf("connections=%d sessions=%d (%.0f sessions/s) guesses=%d (%.0f guesses/s)%n",
+                    connections, sessions, sessions / elapsed, guesses, guesses / elapsed);
+            System.out.println(guessLatency.summary("guess round trip"));
+        }
+    }
+
+    private void read(Explorer e) throws IOException {
+        if (e.channel.read(e.in) < 0) {
+            e.key.cancel();
+            e.channel.close();
+            return;
+        }
+        byte[] buf = e.in.array();
+        int start = 0;
+        int end = e.in.position();
+        for (int i = 0; i < end; i++) {
+            if (buf[i] == '\n') {
+                handleReply(e, buf, start, i);
+                start = i + 1;
+            }
+        }
+        System.arraycopy(buf, start, buf, 0, end - start);
+        e.in.position(end - start);
+    }
+
+    private void handleReply(Explorer e, byte[] line, int from, int to) throws IOException {
+        if (GameServer.startsWith(line, from, to, "READY")) {
+            int lowStart = from + 6;
+            int lowEnd = indexOf(line, ' ', lowStart, to);
+            int highEnd = indexOf(line, ' ', lowEnd + 1, to);
+            parser.parse(line, lowStart, lowEnd);
+            e.low = parser.value();
+            parser.parse(line, lowEnd + 1, highEnd);
+            e.high = parser.value();
+            guess(e);
+            return;
+        }
+
+        guessLatency.record(System.nanoTime() - e.sentNanos);
+        guesses++;
+        if (GameServer.startsWith(line, from, to, "GREATER")) {
+            e.low = e.lastGuess + 1;
+            guess(e);
+        } else if (GameServer.startsWith(line, from, to, "LESSER")) {
+            e.high = e.lastGuess - 1;
+            guess(e);
+        } else {
+            // WIN, LOSE, TIMEOUT or anything unexpected: begin the next riddle.
+            sessions++;
+            send(e, START);
+        }
+    }
+
+    private void guess(Explorer e) throws IOException {
+        e.lastGuess = e.low + ((e.high - e.low) >>> 1); // safe across the whole long range
+        e.out.clear();
+        e.out.put(GUESS);
+        GameServer.putLong(e.out, e.lastGuess);
+        e.out.put((byte) '\n');
+        e.sentNanos = System.nanoTime();
+        write(e);
+    }
+
+    private void send(Explorer e, byte[] command) throws IOException {
+        e.out.clear();
+        e.out.put(command);
+        write(e);
+    }
+
+    // Commands are a few bytes and each explorer has one in flight, so the
+    // socket buffer always has room and a non-blocking write completes.
+    private void write(Explorer e) throws IOException {
+        e.out.flip();
+        while (e.out.hasRemaining()) {
+            e.channel.write(e.out);
+        }
+    }
+
+    private static int indexOf(byte[] line, char c, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (line[i] == c) {
+                return i;
+            }
+        }
+        return to;
+    }
+
+    private static final class Explorer {
+        final SocketChannel channel;
+        final ByteBuffer in = ByteBuffer.allocate(GameServer.MAX_LINE);
+        final ByteBuffer out = ByteBuffer.allocate(GameServer.MAX_LINE);
+        SelectionKey key;
+        long low;
+        long high;
+        long lastGuess;
+        long sentNanos;
+
+        Explorer(SocketChannel channel) {
+            this.channel = channel;
+        }
+    }
+}
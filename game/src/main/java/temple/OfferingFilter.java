@@ -0,0 +1,78 @@
+package temple;
+
+import javax.swing.text.AttributeSet;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
+import javax.swing.text.DocumentFilter;
+import javax.swing.text.Segment;
+
+/**
+ * Keeps a guess field holding something that can become an offering: digits,
+ * a leading minus sign when the range has negative numbers, and no more
+ * characters than the longest bound. Pasted spaces are dropped. Rejected
+ * edits never reach the document; {@code onReject} runs instead, so the game
+ * can say why without opening a dialog. Checks scan the edit in place and
+ * allocate nothing unless the pasted text had spaces. EDT only.
+ */
+public final class OfferingFilter extends DocumentFilter {
+    private final boolean negativeAllowed;
+    private final int maxLength;
+    private final Runnable onReject;
+    private final Segment first = new Segment();
+
+    public OfferingFilter(SecretRange range, Runnable onReject) {
+        this.negativeAllowed = range.min() < 0;
+        this.maxLength = Math.max(Long.toString(range.min()).length(), Long.toString(range.max()).length());
+        this.onReject = onReject;
+    }
+
+    @Override
+    public void insertString(FilterBypass fb, int offset, String text, AttributeSet attrs) throws BadLocationException {
+        replace(fb, offset, 0, text, attrs);
+    }
+
+    @Override
+    public void replace(FilterBypass fb, int offset, int length, String text, AttributeSet attrs) throws BadLocationException {
+        String offered = text == null ? "" : stripSpaces(text);
+        if (accepts(fb.getDocument(), offset, length, offered)) {
+            fb.replace(offset, length, offered, attrs);
+        } else {
+            onReject.run();
+        }
+    }
+
+    private boolean accepts(Document doc, int offset, int removed, String text) throws BadLocationException {
+        int oldLength = doc.getLength();
+        if (oldLength - removed + text.length() > maxLength) {
+            return false;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            boolean ok = c == '-' ? negativeAllowed && offset + i == 0 : c >= '0' && c <= '9';
+            if (!ok) {
+                return false;
+            }
+        }
+        // Nothing may go in front of a sign that stays.
+        if (offset == 0 && removed == 0 && !text.isEmpty() && oldLength > 0) {
+            doc.getText(0, 1, first);
+            return first.first() != '-';
+        }
+        return true;
+    }
+
+    private static String stripSpaces(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (Character.isWhitespace(text.charAt(i))) {
+                StringBuilder kept = new StringBuilder(text.length());
+                for (int j = 0; j < text.length(); j++) {
+                    if (!Character.isWhitespace(text.charAt(j))) {
+                        kept.append(text.charAt(j));
+                    }
+                }
+                return kept.toString();
+            }
+        }
+        return text;
+    }
+}
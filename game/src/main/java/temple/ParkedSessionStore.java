@@ -0,0 +1,194 @@
+package temple;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+
+/**
+ * Holds suspended games off the Java heap, so millions of players who walked
+ * away cost neither heap nor GC time. Each game is packed into a fixed 64-byte
+ * record in a direct-memory slab:
+ *
+ * <pre>
+ *  0  long  secret (next free record while free)
+ *  8  long  elapsed nanos
+ * 16  long  last offering
+ * 24  long  recorder session id
+ * 32  long  parked at nanos
+ * 40  int   torches left
+ * 44  int   score
+ * 48  int   nonce (0 while free)
+ * 52  int   next older parked record, or -1
+ * 56  int   next newer parked record, or -1
+ * 60  byte  difficulty ordinal
+ * </pre>
+ *
+ * Freed records are chained through the slabs themselves and reused before
+ * the store grows. Parked records are also linked oldest to newest, so games
+ * nobody came back for can be expired from the old end without a scan.
+ * A handle combines the record index with a random nonce, so
+ * a stale or made-up handle is refused rather than resuming someone else's
+ * game. Nonces come from the store's own securely seeded generator, never
+ * from {@link Seeds}, so they cannot be guessed from {@code -Dtemple.seed}
+ * and parking does not change which secrets later games are dealt.
+ * Every game in a store shares one {@link SecretRange}.
+ * Not thread-safe: a store belongs to the frame's EDT or a server's selector thread.
+ */
+public final class ParkedSessionStore {
+    public static final int RECORD_BYTES = 64;
+    /** Returned by {@link #unpark} for a handle that does not name a parked game. */
+    public static final long UNKNOWN = -1;
+    /** Returned by {@link #park} when the store is full. */
+    public static final long NO_HANDLE = 0;
+
+    private static final int SLAB_SHIFT = 16;
+    private static final int SLAB_RECORDS = 1 << SLAB_SHIFT;
+    private static final int SLAB_MASK = SLAB_RECORDS - 1;
+    private static final Difficulty[] DIFFICULTIES = Difficulty.values();
+
+    private final SecretRange range;
+    private final int maxRecords;
+    private final ArrayList<ByteBuffer> slabs = new ArrayList<>();
+    private final SplittableRandom nonces = new SplittableRandom(new SecureRandom().nextLong());
+    private int highWater;
+    private int freeHead = -1;
+    private int oldest = -1;
+    private int newest = -1;
+    private int parked;
+
+    public ParkedSessionStore(SecretRange range, int maxRecords) {
+        this.range = range;
+        this.maxRecords = maxRecords;
+    }
+
+    /**
+     * Moves a suspended game into the store and returns its handle, or
+     * {@link #NO_HANDLE} if the store is full. {@code session} may be reused
+     * for another game afterwards.
+     */
+    public long park(GameSession session, long sessionId) {
+        return park(session, sessionId, System.nanoTime());
+    }
+
+    /** Like {@link #park(GameSession, long)}; {@code nowNanos} must not go backwards between calls. */
+    public long park(GameSession session, long sessionId, long nowNanos) {
+        if (session.state() != GameSession.State.SUSPENDED) {
+            throw new IllegalStateException("Only suspended games can be parked, not " + session.state());
+        }
+        if (!session.range().equals(range)) {
+            throw new IllegalArgumentException("Game range " + session.range() + " is not this store's " + range);
+        }
+        int index;
+        if (freeHead >= 0) {
+            index = freeHead;
+            freeHead = (int) slab(index).getLong(offset(index));
+        } else if (highWater < maxRecords) {
+            index = highWater++;
+            if ((index & SLAB_MASK) == 0) {
+                slabs.add(ByteBuffer.allocateDirect(SLAB_RECORDS * RECORD_BYTES).order(ByteOrder.nativeOrder()));
+            }
+        } else {
+            return NO_HANDLE;
+        }
+        int nonce = nonces.nextInt() | 1;
+        ByteBuffer slab = slab(index);
+        int at = offset(index);
+        slab.putLong(at, session.secretNumber())
+                .putLong(at + 8, session.suspendedElapsedNanos())
+                .putLong(at + 16, session.lastGuess())
+                .putLong(at + 24, sessionId)
+                .putLong(at + 32, nowNanos)
+                .putInt(at + 40, session.attemptsLeft())
+                .putInt(at + 44, session.score())
+                .putInt(at + 48, nonce)
+                .putInt(at + 52, newest)
+                .putInt(at + 56, -1)
+                .put(at + 60, (byte) session.difficulty().ordinal());
+        if (newest >= 0) {
+            slab(newest).putInt(offset(newest) + 56, index);
+        } else {
+            oldest = index;
+        }
+        newest = index;
+        parked++;
+        return (long) nonce << 32 | index;
+    }
+
+    /**
+     * Loads the game named by {@code handle} into {@code into}, suspended, and
+     * frees its record. Returns the session id given to {@link #park}, or
+     * {@link #UNKNOWN} if nothing is parked under that handle.
+     */
+    public long unpark(long handle, GameSession into) {
+        if (!isParked(handle)) {
+            return UNKNOWN;
+        }
+        return release((int) handle, into);
+    }
+
+    /**
+     * Unparks the game that has waited longest, as {@link #unpark} would, if it
+     * was parked before {@code parkedBeforeNanos}; otherwise returns
+     * {@link #UNKNOWN} and leaves {@code into} alone. Call until it returns
+     * {@code UNKNOWN} to expire every game older than a cutoff.
+     */
+    public long unparkOldest(long parkedBeforeNanos, GameSession into) {
+        if (oldest < 0 || slab(oldest).getLong(offset(oldest) + 32) - parkedBeforeNanos >= 0) {
+            return UNKNOWN;
+        }
+        return release(oldest, into);
+    }
+
+    private long release(int index, GameSession into) {
+        ByteBuffer slab = slab(index);
+        int at = offset(index);
+        into.restoreSuspended(DIFFICULTIES[slab.get(at + 60)], range, slab.getLong(at),
+                slab.getInt(at + 40), slab.getInt(at + 44), slab.getLong(at + 16), slab.getLong(at + 8));
+        long sessionId = slab.getLong(at + 24);
+        int older = slab.getInt(at + 52);
+        int newer = slab.getInt(at + 56);
+        if (older >= 0) {
+            slab(older).putInt(offset(older) + 56, newer);
+        } else {
+            oldest = newer;
+        }
+        if (newer >= 0) {
+            slab(newer).putInt(offset(newer) + 52, older);
+        } else {
+            newest = older;
+        }
+        slab.putInt(at + 48, 0).putLong(at, freeHead);
+        freeHead = index;
+        parked--;
+        return sessionId;
+    }
+
+    public boolean isParked(long handle) {
+        int index = (int) handle;
+        int nonce = (int) (handle >>> 32);
+        return index >= 0 && index < highWater && nonce != 0 && slab(index).getInt(offset(index) + 48) == nonce;
+    }
+
+    private ByteBuffer slab(int index) {
+        return slabs.get(index >>> SLAB_SHIFT);
+    }
+
+    private static int offset(int index) {
+        return (index & SLAB_MASK) * RECORD_BYTES;
+    }
+
+    public SecretRange range() {
+        return range;
+    }
+
+    /** Games currently parked. */
+    public int size() {
+        return parked;
+    }
+
+    public long offHeapBytes() {
+        return (long) slabs.size() * SLAB_RECORDS * RECORD_BYTES;
+    }
+}
@@ -0,0 +1,140 @@
+package temple;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Pre-rasterized rounded-rectangle backgrounds, keyed by size, color, corner
+ * arc and device scale, with least-recently-used eviction. A cached paint is a
+ * single image blit at device resolution. Paint times are recorded separately
+ * for cache hits and misses so the difference can be read off the histograms.
+ * Lookups go through one reused key, so a hit allocates nothing. EDT only.
+ */
+public final class RoundedBackgroundCache {
+    private static final int DEFAULT_CAPACITY = 64;
+    private static final RoundedBackgroundCache SHARED = new RoundedBackgroundCache(DEFAULT_CAPACITY);
+
+    private final Map<Key, BufferedImage> images;
+    private final LatencyHistogram hitTimes = new LatencyHistogram();
+    private final LatencyHistogram missTimes = new LatencyHistogram();
+    private final Key probe = new Key();
+
+    public RoundedBackgroundCache(int capacity) {
+        this.images = new LinkedHashMap<>(capacity * 2, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, BufferedImage> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    public static RoundedBackgroundCache shared() {
+        return SHARED;
+    }
+
+    public void paint(Graphics2D g, int width, int height, Color color, int arc) {
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+        long started = System.nanoTime();
+        AffineTransform tx = g.getTransform();
+        double scaleX = tx.getScaleX();
+        double scaleY = tx.getScaleY();
+        probe.set(width, height, color.getRGB(), arc, scaleX, scaleY);
+
+        BufferedImage image = images.get(probe);
+        boolean hit = image != null;
+        if (!hit) {
+            image = render(width, height, color, arc, scaleX, scaleY);
+            images.put(probe.copy(), image);
+        }
+        g.drawImage(image, 0, 0, width, height, null);
+        (hit ? hitTimes : missTimes).record(System.nanoTime() - started);
+    }
+
+    private static BufferedImage render(int width, int height, Color color, int arc, double scaleX, double scaleY) {
+        int pixelsWide = (int) Math.ceil(width * scaleX);
+        int pixelsHigh = (int) Math.ceil(height * scaleY);
+        BufferedImage image = new BufferedImage(pixelsWide, pixelsHigh, BufferedImage.TYPE_INT_ARGB_PRE);
+        Graphics2D g2 = image.createGraphics();
+        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2.scale(scaleX, scaleY);
+        g2.setColor(color);
+        g2.fillRoundRect(0, 0, width, height, arc, arc);
+        g2.dispose();
+        return image;
+    }
+
+    public int size() {
+        return images.size();
+    }
+
+    public void clear() {
+        images.clear();
+    }
+
+    public LatencyHistogram hitTimes() {
+        return hitTimes;
+    }
+
+    public LatencyHistogram missTimes() {
+        return missTimes;
+    }
+
+    public String summary() {
+        long hit = hitTimes.percentile(50);
+        long miss = missTimes.percentile(50);
+        String speedup = hit > 0 && miss > 0 ? String.format(" speedup=%.1fx", (double) miss / hit) : "";
+        return hitTimes.summary("button paint (cached)") + "; " + missTimes.summary("button paint (rasterized)") + speedup;
+    }
+
+    // Mutable only so the probe can be reused; keys stored in the map are copies and never change.
+    private static final class Key {
+        int width;
+        int height;
+        int rgb;
+        int arc;
+        double scaleX;
+        double scaleY;
+
+        void set(int width, int height, int rgb, int arc, double scaleX, double scaleY) {
+            this.width = width;
+            this.height = height;
+            this.rgb = rgb;
+            this.arc = arc;
+            this.scaleX = scaleX;
+            this.scaleY = scaleY;
+        }
+
+        Key copy() {
+            Key k = new Key();
+            k.set(width, height, rgb, arc, scaleX, scaleY);
+            return k;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key k = (Key) o;
+            return width == k.width && height == k.height && rgb == k.rgb && arc == k.arc
+                    && scaleX == k.scaleX && scaleY == k.scaleY;
+        }
+
+        @Override
+        public int hashCode() {
+            int h = width;
+            h = 31 * h + height;
+            h = 31 * h + rgb;
+            h = 31 * h + arc;
+            h = 31 * h + Double.hashCode(scaleX);
+            return 31 * h + Double.hashCode(scaleY);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package temple;
+
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+
+import javax.swing.JButton;
+
+/** A button drawn over a rounded, filled background taken from a {@link RoundedBackgroundCache}. */
+public class RoundedButton extends JButton {
+    private static final long serialVersionUID = 1L;
+    public static final int ARC = 15;
+
+    private final Color fill;
+    private final transient RoundedBackgroundCache backgrounds;
+
+    public RoundedButton(String text, Color fill) {
+        this(text, fill, RoundedBackgroundCache.shared());
+    }
+
+    public RoundedButton(String text, Color fill, RoundedBackgroundCache backgrounds) {
+        super(text);
+        this.fill = fill;
+        this.backgrounds = backgrounds;
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        backgrounds.paint((Graphics2D) g, getWidth(), getHeight(), fill, ARC);
+        super.paintComponent(g);
+    }
+}
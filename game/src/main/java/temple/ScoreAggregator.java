@@ -0,0 +1,49 @@
+package temple;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collects scores from many threads without contention: each thread adds to
+ * its own {@link Leaderboard}, and {@link #merged} folds them into one once the
+ * writers are done. A thread's board is created on its first score, which is
+ * the only time a writer takes a lock.
+ */
+public final class ScoreAggregator {
+    private final int capacity;
+    private final int maxScore;
+    private final List<Leaderboard> boards = new ArrayList<>();
+    private final ThreadLocal<Leaderboard> local = ThreadLocal.withInitial(this::newBoard);
+
+    public ScoreAggregator(int capacity, int maxScore) {
+        this.capacity = capacity;
+        this.maxScore = maxScore;
+    }
+
+    /** The calling thread's board; add to it directly in a hot loop. */
+    public Leaderboard local() {
+        return local.get();
+    }
+
+    public void add(int score) {
+        local.get().add(score);
+    }
+
+    /**
+     * A new board holding every score added so far. Call it after the writers
+     * have finished, e.g. once the pool that ran them has been joined.
+     */
+    public synchronized Leaderboard merged() {
+        Leaderboard all = new Leaderboard(capacity, maxScore);
+        for (Leaderboard board : boards) {
+            all.merge(board);
+        }
+        return all;
+    }
+
+    private synchronized Leaderboard newBoard() {
+        Leaderboard board = new Leaderboard(capacity, maxScore);
+        boards.add(board);
+        return board;
+    }
+}
@@ -0,0 +1,280 @@
+package temple;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Durable score history: an append-only log written through a memory-mapped
+ * window plus a compacted snapshot of score counts.
+ *
+ * <p>Log: a 16-byte header (magic, version, generation) followed by 16-byte
+ * records (timestamp millis, score, CRC32 of the first 12 bytes). The checksum
+ * is stored last, so a record torn by a crash fails verification and recovery
+ * stops there; the next append overwrites it. Stores into the mapping survive
+ * kill -9 because they already live in the page cache.
+ *
+ * <p>Snapshot: magic, version, the log generation it covers, then (score, count)
+ * pairs in ascending score order and a trailing CRC32. Compaction writes a new
+ * snapshot beside the old one, renames it into place and only then starts a
+ * fresh log generation, so a crash at any point either keeps the old pair or
+ * leaves a log whose generation the snapshot already covers and is discarded.
+ * A new generation is written to a new file renamed over the old log, never by
+ * truncating a file that may still be mapped. A snapshot that fails its checks
+ * is renamed to {@code scores.snap.corrupt} and the log is replayed on its own,
+ * so one bad byte costs the compacted history but not the store.
+ *
+ * <p>Thread-safe, but appends can compact and force pages to disk, so callers
+ * on the EDT should hand them to a background thread.
+ */
+public final class ScoreStore implements Closeable {
+    private static final int LOG_MAGIC = 0x54534C47; // "TSLG"
+    private static final int SNAPSHOT_MAGIC = 0x5453534E; // "TSSN"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 16;
+    private static final int RECORD_BYTES = 16;
+    private static final int WINDOW_BYTES = 64 * 1024;
+    private static final int DEFAULT_COMPACT_THRESHOLD = 64 * 1024;
+
+    private final Path logPath;
+    private final Path snapshotPath;
+    private FileChannel log;
+    private final long[] counts;
+    private final int compactThreshold;
+    private final CRC32 crc = new CRC32();
+    private final ByteBuffer scratch = ByteBuffer.allocate(RECORD_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+
+    private long generation;
+    private long appendPosition;
+    private long logRecords;
+    private MappedByteBuffer window;
+    private long windowStart;
+    private boolean closed;
+
+    private ScoreStore(Path dir, int maxScore, int compactThreshold) throws IOException {
+        Files.createDirectories(dir);
+        this.logPath = dir.resolve("scores.log");
+        this.snapshotPath = dir.resolve("scores.snap");
+        this.counts = new long[maxScore + 1];
+        this.compactThreshold = compactThreshold;
+        this.log = FileChannel.open(logPath, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    public static ScoreStore open(Path dir, int maxScore) throws IOException {
+        return open(dir, maxScore, DEFAULT_COMPACT_THRESHOLD);
+    }
+
+    public static ScoreStore open(Path dir, int maxScore, int compactThreshold) throws IOException {
+        ScoreStore store = new ScoreStore(dir, maxScore, compactThreshold);
+        try {
+            store.recover();
+        } catch (IOException | RuntimeException e) {
+            store.log.close();
+            throw e;
+        }
+        return store;
+    }
+
+    public static Path defaultDirectory() {
+        return Path.of(System.getProperty("temple.data.dir",
+                Path.of(System.getProperty("user.home"), ".forgotten-temple").toString()));
+    }
+
+    private void recover() throws IOException {
+        long covered = readSnapshot();
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        boolean validHeader = log.read(header, 0) == HEADER_BYTES
+                && header.getInt(0) == LOG_MAGIC && header.getInt(4) == VERSION;
+        long logGeneration = validHeader ? header.getLong(8) : -1;
+        if (logGeneration <= covered) {
+            startGeneration(covered + 1);
+            return;
+        }
+
+        generation = logGeneration;
+        long size = log.size();
+        long position = HEADER_BYTES;
+        if (size > HEADER_BYTES) {
+            MappedByteBuffer existing = log.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            existing.order(ByteOrder.LITTLE_ENDIAN);
+            while (position + RECORD_BYTES <= size) {
+                int offset = (int) position;
+                int score = existing.getInt(offset + 8);
+                if (checksum(existing, offset) != existing.getInt(offset + 12)) {
+                    break;
+                }
+                count(score, 1);
+                logRecords++;
+                position += RECORD_BYTES;
+            }
+        }
+        appendPosition = position;
+        mapWindow(position);
+    }
+
+    // Returns the log generation folded into the snapshot, or 0 without one.
+    private long readSnapshot() throws IOException {
+        if (!Files.exists(snapshotPath)) {
+            return 0;
+        }
+        ByteBuffer buf = ByteBuffer.wrap(Files.readAllBytes(snapshotPath)).order(ByteOrder.LITTLE_ENDIAN);
+        boolean recognised = buf.remaining() >= 24 && buf.getInt(0) == SNAPSHOT_MAGIC && buf.getInt(4) == VERSION;
+        int end = buf.limit() - 4;
+        if (recognised) {
+            crc.reset();
+            crc.update(buf.array(), 0, end);
+        }
+        int entries = recognised ? buf.getInt(16) : -1;
+        if (!recognised || (int) crc.getValue() != buf.getInt(end) || entries < 0 || 20 + entries * 12L != end) {
+            Path aside = snapshotPath.resolveSibling("scores.snap.corrupt");
+            Files.move(snapshotPath, aside, StandardCopyOption.REPLACE_EXISTING);
+            System.err.println("Corrupt score snapshot moved to " + aside + "; keeping only the scores in the log");
+            return 0;
+        }
+        long covered = buf.getLong(8);
+        int offset = 20;
+        for (int i = 0; i < entries; i++, offset += 12) {
+            count(buf.getInt(offset), buf.getLong(offset + 4));
+        }
+        return covered;
+    }
+
+    private void count(int score, long n) {
+        counts[Math.max(0, Math.min(counts.length - 1, score))] += n;
+    }
+
+    private int checksum(ByteBuffer buf, int offset) {
+        scratch.clear();
+        scratch.putLong(0, buf.getLong(offset));
+        scratch.putInt(8, buf.getInt(offset + 8));
+        crc.reset();
+        crc.update(scratch.array(), 0, 12);
+        return (int) crc.getValue();
+    }
+
+    private void startGeneration(long newGeneration) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(LOG_MAGIC).putInt(VERSION).putLong(newGeneration).flip();
+        // Truncating the old log would pull pages out from under its mapping, so replace the file.
+        Path tmp = logPath.resolveSibling("scores.log.tmp");
+        try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (header.hasRemaining()) {
+                out.write(header);
+            }
+            out.force(true);
+        }
+        Files.move(tmp, logPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        FileChannel fresh = FileChannel.open(logPath, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        window = null;
+        log.close();
+        log = fresh;
+        generation = newGeneration;
+        appendPosition = HEADER_BYTES;
+        logRecords = 0;
+        mapWindow(HEADER_BYTES);
+    }
+
+    private void mapWindow(long position) throws IOException {
+        windowStart = position;
+        window = log.map(FileChannel.MapMode.READ_WRITE, windowStart, WINDOW_BYTES);
+        window.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    public synchronized void append(int score) throws IOException {
+        ensureOpen();
+        if (appendPosition + RECORD_BYTES > windowStart + WINDOW_BYTES) {
+            window.force();
+            mapWindow(appendPosition);
+        }
+        int offset = (int) (appendPosition - windowStart);
+        window.putLong(offset, System.currentTimeMillis());
+        window.putInt(offset + 8, score);
+        window.putInt(offset + 12, checksum(window, offset));
+        appendPosition += RECORD_BYTES;
+        logRecords++;
+        count(score, 1);
+
+        if (logRecords >= compactThreshold) {
+            compact();
+        }
+    }
+
+    /** Folds the log into a fresh snapshot and starts a new, empty log generation. */
+    public synchronized void compact() throws IOException {
+        ensureOpen();
+        int entries = 0;
+        for (long c : counts) {
+            if (c > 0) {
+                entries++;
+            }
+        }
+        ByteBuffer buf = ByteBuffer.allocate(20 + entries * 12 + 4).order(ByteOrder.LITTLE_ENDIAN);
+        buf.putInt(SNAPSHOT_MAGIC).putInt(VERSION).putLong(generation).putInt(entries);
+        for (int score = 0; score < counts.length; score++) {
+            if (counts[score] > 0) {
+                buf.putInt(score).putLong(counts[score]);
+            }
+        }
+        crc.reset();
+        crc.update(buf.array(), 0, buf.position());
+        buf.putInt((int) crc.getValue()).flip();
+
+        Path tmp = snapshotPath.resolveSibling("scores.snap.tmp");
+        try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buf.hasRemaining()) {
+                out.write(buf);
+            }
+            out.force(true);
+        }
+        Files.move(tmp, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        startGeneration(generation + 1);
+    }
+
+    /** Hands every recorded (score, count) pair to {@code consumer}, lowest score first. */
+    public synchronized void forEachScore(ScoreConsumer consumer) {
+        for (int score = 0; score < counts.length; score++) {
+            if (counts[score] > 0) {
+                consumer.accept(score, counts[score]);
+            }
+        }
+    }
+
+    public synchronized void flush() {
+        if (window != null) {
+            window.force();
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Score history is closed");
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        flush();
+        window = null;
+        log.close();
+    }
+
+    @FunctionalInterface
+    public interface ScoreConsumer {
+        void accept(int score, long count);
+    }
+}
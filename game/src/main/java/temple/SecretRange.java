@@ -0,0 +1,126 @@
+package temple;
+
+/**
+ * The inclusive span a sacred number is drawn from, anywhere up to the whole
+ * {@code long} space. Wider spans grant more torches (see {@link #attempts()}).
+ * The classic riddle is {@link #CLASSIC}; a kiosk or
+ * server picks another with {@code -Dtemple.range=min..max} or
+ * {@code -Dtemple.range=full}.
+ */
+public final class SecretRange {
+    public static final SecretRange CLASSIC = new SecretRange(GameSession.MIN_NUMBER, GameSession.MAX_NUMBER);
+    public static final SecretRange FULL = new SecretRange(Long.MIN_VALUE, Long.MAX_VALUE);
+
+    private static final SecretRange CONFIGURED = fromProperty(System.getProperty("temple.range"));
+
+    private final long min;
+    private final long max;
+    private final int attempts;
+
+    public SecretRange(long min, long max) {
+        if (max < min) {
+            throw new IllegalArgumentException("Empty range " + min + ".." + max);
+        }
+        this.min = min;
+        this.max = max;
+        // Bits needed to tell every number apart, less two so the riddle still
+        // takes some luck; never fewer torches than the classic game.
+        long size = max - min + 1; // 0 when the range covers every long
+        int bits = size == 0 ? Long.SIZE : Long.SIZE - Long.numberOfLeadingZeros(size - 1);
+        attempts = Math.max(GameSession.MAX_ATTEMPTS, bits - 2);
+    }
+
+    /** The range chosen with {@code temple.range}, or {@link #CLASSIC}. */
+    public static SecretRange configured() {
+        return CONFIGURED;
+    }
+
+    /** Parses {@code min..max} or {@code full}. */
+    public static SecretRange parse(String text) {
+        String spec = text.trim();
+        if (spec.equalsIgnoreCase("full")) {
+            return FULL;
+        }
+        int dots = spec.indexOf("..");
+        if (dots < 0) {
+            throw new IllegalArgumentException("Expected min..max or full, got " + text);
+        }
+        return new SecretRange(Long.parseLong(spec.substring(0, dots).trim()),
+                Long.parseLong(spec.substring(dots + 2).trim()));
+    }
+
+    private static SecretRange fromProperty(String value) {
+        if (value == null) {
+            return CLASSIC;
+        }
+        try {
+            return parse(value);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Ignoring temple.range: " + e.getMessage());
+            return CLASSIC;
+        }
+    }
+
+    /** The secret for {@code seed}: the same seed always yields the same number. */
+    public long secret(long seed) {
+        return pick(min, max, mix(seed));
+    }
+
+    /**
+     * Maps 64 uniformly random bits onto {@code low..high} by taking the high
+     * half of their product with the span, which needs no division and no
+     * retry loop. The bias is below span / 2^64.
+     */
+    public static long pick(long low, long high, long randomBits) {
+        long size = high - low + 1;
+        if (size == 0) {
+            return randomBits;
+        }
+        return low + unsignedMultiplyHigh(randomBits, size);
+    }
+
+    // SplitMix64's finalizer: consecutive seeds give unrelated secrets.
+    static long mix(long seed) {
+        long z = seed + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    // Math.unsignedMultiplyHigh arrived after the release this game targets.
+    private static long unsignedMultiplyHigh(long x, long y) {
+        return Math.multiplyHigh(x, y) + ((x >> 63) & y) + ((y >> 63) & x);
+    }
+
+    public boolean contains(long value) {
+        return value >= min && value <= max;
+    }
+
+    public long min() {
+        return min;
+    }
+
+    public long max() {
+        return max;
+    }
+
+    /** Torches granted for this range: at least {@link GameSession#MAX_ATTEMPTS}. */
+    public int attempts() {
+        return attempts;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof SecretRange other && other.min == min && other.max == max;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(min) * 31 + Long.hashCode(max);
+    }
+
+    @Override
+    public String toString() {
+        return min + ".." + max;
+    }
+}
@@ -0,0 +1,27 @@
+package temple;
+
+import java.util.SplittableRandom;
+
+/**
+ * Per-thread streams of game seeds. Each thread gets its own
+ * {@link SplittableRandom} split from a common root, so drawing a seed never
+ * contends or allocates. With {@code -Dtemple.seed=n} the root is fixed and a
+ * single-threaded run deals the same games every time.
+ */
+public final class Seeds {
+    private static final SplittableRandom ROOT = Long.getLong("temple.seed") == null
+            ? new SplittableRandom()
+            : new SplittableRandom(Long.getLong("temple.seed"));
+    private static final ThreadLocal<SplittableRandom> STREAM = ThreadLocal.withInitial(Seeds::split);
+
+    private Seeds() {
+    }
+
+    public static long next() {
+        return STREAM.get().nextLong();
+    }
+
+    private static synchronized SplittableRandom split() {
+        return ROOT.split();
+    }
+}
@@ -0,0 +1,281 @@
+package temple;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Offline statistics over recorded session logs, for tuning the difficulty
+ * constants from real play. Every session's END event carries its difficulty,
+ * final state, score, torches used and elapsed time, so records can be
+ * aggregated in any order: every log is split into record ranges sized so
+ * each pool thread gets several, all files' ranges are mapped and scanned
+ * together on a fork-join pool, and the fixed-size partial results are
+ * merged. Heap use does not depend on the size of the logs.
+ *
+ * <pre>java temple.SessionAnalytics [log files or directories...]</pre>
+ */
+public final class SessionAnalytics {
+    private static final int TASKS_PER_THREAD = 4;
+    private static final long MIN_RECORDS_PER_TASK = 1L << 12; // 128 KiB of events
+    private static final long MAX_RECORDS_PER_TASK = 1L << 21; // 64 MiB of events per mapping
+    private static final int SCORE_BUCKETS = GameSession.MAX_SCORE / GameSession.POINTS_PER_SECOND + 1;
+    private static final int DIFFICULTIES = Difficulty.values().length;
+    private static final int MAX_TORCHES = SecretRange.FULL.attempts();
+
+    public static void main(String[] args) throws IOException {
+        List<Path> files = new ArrayList<>();
+        if (args.length == 0) {
+            files.addAll(List.of(SessionRecorder.logFiles(SessionRecorder.defaultDirectory())));
+        }
+        for (String arg : args) {
+            Path p = Path.of(arg);
+            files.addAll(Files.isDirectory(p) ? List.of(SessionRecorder.logFiles(p)) : List.of(p));
+        }
+
+        long started = System.nanoTime();
+        Aggregate total = analyze(files, ForkJoinPool.commonPool());
+        double seconds = (System.nanoTime() - started) / 1e9;
+        System.out.print(total.report());
+        System.out.printf("scanned %d events from %d files in %.2fs (%.0f events/s)%n",
+                total.events, files.size(), seconds, total.events / seconds);
+    }
+
+    public static Aggregate analyze(List<Path> files, ForkJoinPool pool) throws IOException {
+        List<FileChannel> channels = new ArrayList<>(files.size());
+        try {
+            int[] headers = new int[files.size()];
+            long[] records = new long[files.size()];
+            long totalRecords = 0;
+            for (int i = 0; i < files.size(); i++) {
+                FileChannel channel = FileChannel.open(files.get(i), StandardOpenOption.READ);
+                channels.add(channel);
+                headers[i] = headerBytes(channel);
+                if (headers[i] < 0) {
+                    throw new IOException("Not a session log: " + files.get(i));
+                }
+                records[i] = (channel.size() - headers[i]) / SessionRecorder.RECORD_BYTES;
+                totalRecords += records[i];
+            }
+
+            // Rolled logs are only 16 MiB, so a fixed leaf size would leave most threads idle.
+            long leaf = totalRecords / ((long) pool.getParallelism() * TASKS_PER_THREAD);
+            leaf = Math.max(MIN_RECORDS_PER_TASK, Math.min(MAX_RECORDS_PER_TASK, leaf));
+            List<ChunkTask> tasks = new ArrayList<>(files.size());
+            for (int i = 0; i < files.size(); i++) {
+                if (records[i] > 0) {
+                    tasks.add(new ChunkTask(channels.get(i), headers[i], 0, records[i], leaf));
+                }
+            }
+            return pool.invoke(new FilesTask(tasks));
+        } finally {
+            for (FileChannel channel : channels) {
+                channel.close();
+            }
+        }
+    }
+
+    private static int headerBytes(FileChannel channel) throws IOException {
+        ByteBuffer start = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+        while (start.hasRemaining() && channel.read(start, start.position()) > 0) {
+            // keep reading
+        }
+        if (start.hasRemaining() || start.getInt(0) != SessionRecorder.MAGIC) {
+            return -1;
+        }
+        return SessionRecorder.headerBytes(start.getInt(4));
+    }
+
+    // Every file's root chunk at once, so small files are scanned side by side.
+    private static final class FilesTask extends RecursiveTask<Aggregate> {
+        private static final long serialVersionUID = 1L;
+
+        private final transient List<ChunkTask> files;
+
+        FilesTask(List<ChunkTask> files) {
+            this.files = files;
+        }
+
+        @Override
+        protected Aggregate compute() {
+            Aggregate total = new Aggregate();
+            for (ChunkTask file : invokeAll(files)) {
+                total.merge(file.join());
+            }
+            return total;
+        }
+    }
+
+    private static final class ChunkTask extends RecursiveTask<Aggregate> {
+        private static final long serialVersionUID = 1L;
+
+        private final transient FileChannel channel;
+        private final int header;
+        private final long first;
+        private final long end;
+        private final long leaf;
+
+        ChunkTask(FileChannel channel, int header, long first, long end, long leaf) {
+            this.channel = channel;
+            this.header = header;
+            this.first = first;
+            this.end = end;
+            this.leaf = leaf;
+        }
+
+        @Override
+        protected Aggregate compute() {
+            if (end - first > leaf) {
+                long middle = (first + end) >>> 1;
+                ChunkTask left = new ChunkTask(channel, header, first, middle, leaf);
+                left.fork();
+                Aggregate right = new ChunkTask(channel, header, middle, end, leaf).compute();
+                right.merge(left.join());
+                return right;
+            }
+            Aggregate partial = new Aggregate();
+            try {
+                long offset = header + first * SessionRecorder.RECORD_BYTES;
+                MappedByteBuffer chunk = channel.map(FileChannel.MapMode.READ_ONLY, offset,
+                        (end - first) * SessionRecorder.RECORD_BYTES);
+                chunk.order(ByteOrder.LITTLE_ENDIAN);
+                int limit = chunk.limit();
+                for (int at = 0; at < limit; at += SessionRecorder.RECORD_BYTES) {
+                    partial.events++;
+                    if (chunk.get(at + 28) == SessionRecorder.END) {
+                        partial.end(chunk.get(at + 29), chunk.get(at + 30), chunk.getInt(at + 24),
+                                chunk.get(at + 31), chunk.getLong(at + 16));
+                    }
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not map session log", e);
+            }
+            return partial;
+        }
+    }
+
+    /** Per-difficulty counters, histograms and time-to-solve distribution. */
+    public static final class Aggregate {
+        long events;
+        final long[] games = new long[DIFFICULTIES];
+        final long[][] states = new long[DIFFICULTIES][GameSession.State.values().length];
+        final long[][] torchesUsed = new long[DIFFICULTIES][MAX_TORCHES + 1];
+        final long[][] scores = new long[DIFFICULTIES][SCORE_BUCKETS];
+        final LatencyHistogram[] solveTimes = new LatencyHistogram[DIFFICULTIES];
+
+        Aggregate() {
+            for (int d = 0; d < DIFFICULTIES; d++) {
+                solveTimes[d] = new LatencyHistogram();
+            }
+        }
+
+        void end(int difficulty, int state, int score, int used, long elapsedNanos) {
+            if (difficulty < 0 || difficulty >= DIFFICULTIES || state < 0 || state >= states[0].length) {
+                return;
+            }
+            games[difficulty]++;
+            states[difficulty][state]++;
+            torchesUsed[difficulty][Math.max(0, Math.min(MAX_TORCHES, used))]++;
+            scores[difficulty][Math.max(0, Math.min(SCORE_BUCKETS - 1, score / GameSession.POINTS_PER_SECOND))]++;
+            if (state == GameSession.State.WON.ordinal()) {
+                solveTimes[difficulty].record(elapsedNanos);
+            }
+        }
+
+        void merge(Aggregate other) {
+            events += other.events;
+            for (int d = 0; d < DIFFICULTIES; d++) {
+                games[d] += other.games[d];
+                add(states[d], other.states[d]);
+                add(torchesUsed[d], other.torchesUsed[d]);
+                add(scores[d], other.scores[d]);
+                solveTimes[d].add(other.solveTimes[d]);
+            }
+        }
+
+        private static void add(long[] into, long[] from) {
+            for (int i = 0; i < into.length; i++) {
+                into[i] += from[i];
+            }
+        }
+
+        public long games(Difficulty difficulty) {
+            return games[difficulty.ordinal()];
+        }
+
+        public double winRate(Difficulty difficulty) {
+            long n = games[difficulty.ordinal()];
+            return n == 0 ? 0 : (double) states[difficulty.ordinal()][GameSession.State.WON.ordinal()] / n;
+        }
+
+        public String report() {
+            StringBuilder out = new StringBuilder();
+            for (Difficulty difficulty : Difficulty.values()) {
+                int d = difficulty.ordinal();
+                long n = games[d];
+                out.append(difficulty.label()).append(": ").append(n).append(" games\n");
+                if (n == 0) {
+                    continue;
+                }
+                long[] byState = states[d];
+                out.append(String.format("  won %.1f%%  lost %.1f%%  timed out %.1f%%  abandoned %.1f%%%n",
+                        percent(byState[GameSession.State.WON.ordinal()], n),
+                        percent(byState[GameSession.State.LOST.ordinal()], n),
+                        percent(byState[GameSession.State.TIMED_OUT.ordinal()], n),
+                        percent(byState[GameSession.State.PLAYING.ordinal()], n)));
+
+                // Wide-range games grant more torches; only list counts they actually reached.
+                out.append("  torches used:");
+                for (int used = 0; used <= MAX_TORCHES; used++) {
+                    if (used <= GameSession.MAX_ATTEMPTS || torchesUsed[d][used] != 0) {
+                        out.append(String.format(" %d=%.1f%%", used, percent(torchesUsed[d][used], n)));
+                    }
+                }
+                out.append('\n');
+
+                out.append("  treasure value deciles:");
+                for (int decile = 1; decile <= 9; decile++) {
+                    out.append(' ').append(scorePercentile(scores[d], n, decile * 10));
+                }
+                out.append('\n');
+
+                LatencyHistogram solve = solveTimes[d];
+                if (solve.count() > 0) {
+                    long limit = TimeUnit.SECONDS.toNanos(difficulty.timeLimit());
+                    out.append(String.format("  time to solve (limit %ds): p50 %.1fs (%.0f%%)  p90 %.1fs (%.0f%%)  p99 %.1fs (%.0f%%)%n",
+                            difficulty.timeLimit(),
+                            solve.percentile(50) / 1e9, percent(solve.percentile(50), limit),
+                            solve.percentile(90) / 1e9, percent(solve.percentile(90), limit),
+                            solve.percentile(99) / 1e9, percent(solve.percentile(99), limit)));
+                }
+            }
+            return out.toString();
+        }
+
+        private static int scorePercentile(long[] buckets, long n, int p) {
+            long rank = Math.max(1, (long) Math.ceil(n * p / 100.0));
+            long seen = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                seen += buckets[i];
+                if (seen >= rank) {
+                    return i * GameSession.POINTS_PER_SECOND;
+                }
+            }
+            return GameSession.MAX_SCORE;
+        }
+
+        private static double percent(long part, long whole) {
+            return whole == 0 ? 0 : 100.0 * part / whole;
+        }
+    }
+}
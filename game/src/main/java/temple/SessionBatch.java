@@ -0,0 +1,139 @@
+package temple;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Many sessions laid out as parallel primitive arrays, for bots and load tests
+ * that play thousands of games at once. {@link #evaluate} applies one offering
+ * to each session in a slot range in a single pass, with the same rules as
+ * {@link GameSession#guess}, and writes outcome ordinals into a byte array:
+ * no per-guess objects and no exceptions. All sessions share one
+ * {@link SecretRange}. Not thread-safe; give each thread its own batch.
+ */
+public final class SessionBatch {
+    private static final long SECOND_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final byte IDLE = (byte) GameSession.State.IDLE.ordinal();
+    private static final byte PLAYING = (byte) GameSession.State.PLAYING.ordinal();
+    private static final byte WON = (byte) GameSession.State.WON.ordinal();
+    private static final byte LOST = (byte) GameSession.State.LOST.ordinal();
+    private static final byte TIMED_OUT = (byte) GameSession.State.TIMED_OUT.ordinal();
+    private static final GameSession.State[] STATES = GameSession.State.values();
+
+    public static final byte INVALID = (byte) GameSession.Outcome.INVALID.ordinal();
+    public static final byte TOO_LOW = (byte) GameSession.Outcome.TOO_LOW.ordinal();
+    public static final byte TOO_HIGH = (byte) GameSession.Outcome.TOO_HIGH.ordinal();
+    public static final byte WIN = (byte) GameSession.Outcome.WON.ordinal();
+    public static final byte LOSS = (byte) GameSession.Outcome.LOST.ordinal();
+    public static final byte TIMEOUT = (byte) GameSession.Outcome.TIMED_OUT.ordinal();
+    public static final byte NOT_PLAYING = (byte) GameSession.Outcome.NOT_PLAYING.ordinal();
+
+    private final SecretRange range;
+    private final long[] secrets;
+    private final long[] startNanos;
+    private final long[] deadlines;
+    private final int[] timeLimits;
+    private final int[] attemptsLeft;
+    private final int[] scores;
+    private final byte[] states;
+
+    public SessionBatch(int capacity, SecretRange range) {
+        this.range = range;
+        secrets = new long[capacity];
+        startNanos = new long[capacity];
+        deadlines = new long[capacity];
+        timeLimits = new int[capacity];
+        attemptsLeft = new int[capacity];
+        scores = new int[capacity];
+        states = new byte[capacity];
+        Arrays.fill(states, IDLE);
+    }
+
+    /** Starts a game in {@code slot} whose secret is the one {@link GameSession} would deal for {@code seed}. */
+    public void start(int slot, Difficulty difficulty, long seed, long nowNanos) {
+        secrets[slot] = range.secret(seed);
+        startNanos[slot] = nowNanos;
+        deadlines[slot] = nowNanos + difficulty.timeLimit() * SECOND_NANOS;
+        timeLimits[slot] = difficulty.timeLimit();
+        attemptsLeft[slot] = range.attempts();
+        scores[slot] = 0;
+        states[slot] = PLAYING;
+    }
+
+    /**
+     * Offers {@code guesses[i]} at {@code nowNanos[i]} to the session in each
+     * slot {@code from <= i < to} and stores the {@link GameSession.Outcome}
+     * ordinal in {@code outcomes[i]}. Returns how many of those sessions ended.
+     */
+    public int evaluate(int from, int to, long[] guesses, long[] nowNanos, byte[] outcomes) {
+        long min = range.min();
+        long max = range.max();
+        int ended = 0;
+        for (int i = from; i < to; i++) {
+            if (states[i] != PLAYING) {
+                outcomes[i] = NOT_PLAYING;
+                continue;
+            }
+            long now = nowNanos[i];
+            if (now - deadlines[i] >= 0) {
+                states[i] = TIMED_OUT;
+                outcomes[i] = TIMEOUT;
+                ended++;
+                continue;
+            }
+            long guess = guesses[i];
+            if (guess < min || guess > max) {
+                outcomes[i] = INVALID;
+                continue;
+            }
+            int left = --attemptsLeft[i];
+            long secret = secrets[i];
+            if (guess == secret) {
+                long elapsed = Math.max(0, now - startNanos[i]);
+                scores[i] = (int) Math.max(0, timeLimits[i] - elapsed / SECOND_NANOS) * GameSession.POINTS_PER_SECOND;
+                states[i] = WON;
+                outcomes[i] = WIN;
+                ended++;
+            } else if (left == 0) {
+                states[i] = LOST;
+                outcomes[i] = LOSS;
+                ended++;
+            } else {
+                outcomes[i] = guess < secret ? TOO_LOW : TOO_HIGH;
+            }
+        }
+        return ended;
+    }
+
+    public int capacity() {
+        return states.length;
+    }
+
+    public SecretRange range() {
+        return range;
+    }
+
+    public boolean isPlaying(int slot) {
+        return states[slot] == PLAYING;
+    }
+
+    public GameSession.State state(int slot) {
+        return STATES[states[slot]];
+    }
+
+    public long secret(int slot) {
+        return secrets[slot];
+    }
+
+    public int attemptsLeft(int slot) {
+        return attemptsLeft[slot];
+    }
+
+    public int torchesUsed(int slot) {
+        return range.attempts() - attemptsLeft[slot];
+    }
+
+    public int score(int slot) {
+        return scores[slot];
+    }
+}
@@ -0,0 +1,218 @@
+package temple;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records sessions as a stream of fixed-width binary events in rolling log
+ * files ({@code sessions-00001.bin}, ...). Each file starts with a 32-byte
+ * header (magic, format version, creation millis, then the min and max of the
+ * {@link SecretRange} its sessions were dealt from) followed by 32-byte records:
+ *
+ * <pre>
+ *  0  long  session id
+ *  8  long  monotonic timestamp (System.nanoTime)
+ * 16  long  payload: START seed, GUESS offering, END and SUSPEND elapsed nanos
+ * 24  int   value:   START time limit, GUESS torches left, END score
+ * 28  byte  event type
+ * 29  byte  difficulty ordinal
+ * 30  byte  GUESS outcome ordinal, END state ordinal
+ * 31  byte  END torches used
+ * </pre>
+ *
+ * Recording writes into a reused direct buffer and never allocates; the buffer
+ * reaches the file when it fills up and, for a kiosk, at the end of every
+ * session; a server recorder only writes full buffers. Starting a session
+ * from a different range than the current file's rolls to a new file. Version 1
+ * logs had a 16-byte header, the classic range, and secrets drawn with
+ * {@code new Random(seed)}. An I/O
+ * failure is reported once and turns recording off rather than disturbing play.
+ */
+public final class SessionRecorder implements Closeable {
+    public static final int MAGIC = 0x54534556; // "TSEV"
+    public static final int VERSION = 2;
+    public static final int HEADER_BYTES = 32;
+    public static final int LEGACY_VERSION = 1;
+    public static final int LEGACY_HEADER_BYTES = 16;
+    public static final int RECORD_BYTES = 32;
+
+    public static final byte START = 1;
+    public static final byte GUESS = 2;
+    public static final byte TIMEOUT = 3;
+    public static final byte END = 4;
+    public static final byte SUSPEND = 5;
+    public static final byte RESUME = 6;
+
+    private static final int BUFFER_BYTES = 64 * 1024;
+    private static final long DEFAULT_ROLL_BYTES = 16L * 1024 * 1024;
+
+    private final Path dir;
+    private final long rollBytes;
+    private final boolean flushEachSession;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    private FileChannel file;
+    private long fileBytes;
+    private SecretRange range = SecretRange.CLASSIC;
+    private boolean rangeChanged;
+    private int fileIndex;
+    private long nextSessionId = System.currentTimeMillis() << 16;
+    private boolean failed;
+
+    public SessionRecorder(Path dir) {
+        this(dir, true);
+    }
+
+    public SessionRecorder(Path dir, boolean flushEachSession) {
+        this(dir, DEFAULT_ROLL_BYTES, flushEachSession);
+    }
+
+    public SessionRecorder(Path dir, long rollBytes, boolean flushEachSession) {
+        this.dir = dir;
+        this.rollBytes = rollBytes;
+        this.flushEachSession = flushEachSession;
+    }
+
+    public static Path defaultDirectory() {
+        return ScoreStore.defaultDirectory().resolve("sessions");
+    }
+
+    /** Header size for a log of {@code version}, or -1 if the version is unknown. */
+    public static int headerBytes(int version) {
+        return switch (version) {
+            case LEGACY_VERSION -> LEGACY_HEADER_BYTES;
+            case VERSION -> HEADER_BYTES;
+            default -> -1;
+        };
+    }
+
+    /** Returns the id to pass with the rest of this session's events. */
+    public synchronized long recordStart(Difficulty difficulty, SecretRange range, long seed, long nanos) {
+        if (!range.equals(this.range)) {
+            flush();
+            this.range = range;
+            rangeChanged = true;
+        }
+        long id = nextSessionId++;
+        put(id, nanos, seed, difficulty.timeLimit(), START, difficulty.ordinal(), 0, 0);
+        return id;
+    }
+
+    public synchronized void recordGuess(long id, long nanos, GameSession session, long guess, GameSession.Outcome outcome) {
+        put(id, nanos, guess, session.attemptsLeft(), GUESS, session.difficulty().ordinal(), outcome.ordinal(), 0);
+    }
+
+    public synchronized void recordTimeout(long id, long nanos, GameSession session) {
+        put(id, nanos, 0, 0, TIMEOUT, session.difficulty().ordinal(), 0, 0);
+    }
+
+    public synchronized void recordSuspend(long id, long nanos, GameSession session) {
+        put(id, nanos, session.suspendedElapsedNanos(), session.attemptsLeft(), SUSPEND, session.difficulty().ordinal(), 0, 0);
+    }
+
+    public synchronized void recordResume(long id, long nanos, GameSession session) {
+        put(id, nanos, 0, 0, RESUME, session.difficulty().ordinal(), 0, 0);
+    }
+
+    /** Writes the session's final state, flushing the buffer if this recorder flushes per session. */
+    public synchronized void recordEnd(long id, long nanos, GameSession session) {
+        put(id, nanos, nanos - session.startNanos(), session.score(), END, session.difficulty().ordinal(),
+                session.state().ordinal(), session.torchesUsed());
+        if (flushEachSession) {
+            flush();
+        }
+    }
+
+    private void put(long id, long nanos, long payload, int value, byte type, int difficulty, int outcome, int used) {
+        if (failed) {
+            return;
+        }
+        if (buffer.remaining() < RECORD_BYTES) {
+            flush();
+        }
+        buffer.putLong(id).putLong(nanos).putLong(payload).putInt(value)
+                .put(type).put((byte) difficulty).put((byte) outcome).put((byte) used);
+    }
+
+    public synchronized void flush() {
+        if (failed || buffer.position() == 0) {
+            return;
+        }
+        try {
+            if (file == null || rangeChanged || fileBytes + buffer.position() > rollBytes) {
+                roll();
+            }
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                fileBytes += file.write(buffer);
+            }
+        } catch (IOException e) {
+            failed = true;
+            System.err.println("Session recording stopped: " + e);
+        } finally {
+            buffer.clear();
+        }
+    }
+
+    private void roll() throws IOException {
+        if (file != null) {
+            file.close();
+        } else {
+            Files.createDirectories(dir);
+            fileIndex = lastFileIndex(dir);
+        }
+        fileIndex++;
+        file = FileChannel.open(dir.resolve(String.format("sessions-%05d.bin", fileIndex)),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putInt(VERSION).putLong(System.currentTimeMillis())
+                .putLong(range.min()).putLong(range.max()).flip();
+        while (header.hasRemaining()) {
+            file.write(header);
+        }
+        fileBytes = HEADER_BYTES;
+        rangeChanged = false;
+    }
+
+    private static int lastFileIndex(Path dir) throws IOException {
+        int last = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "sessions-*.bin")) {
+            for (Path p : files) {
+                String name = p.getFileName().toString();
+                try {
+                    last = Math.max(last, Integer.parseInt(name.substring(9, name.length() - 4)));
+                } catch (NumberFormatException ignored) {
+                    // not one of ours
+                }
+            }
+        }
+        return last;
+    }
+
+    /** Every session log in {@code dir}, oldest first. */
+    public static Path[] logFiles(Path dir) throws IOException {
+        List<Path> logs = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "sessions-*.bin")) {
+            files.forEach(logs::add);
+        }
+        logs.sort(null);
+        return logs.toArray(new Path[0]);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        flush();
+        if (file != null) {
+            file.close();
+            file = null;
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package temple;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Re-executes recorded session logs through {@link GameSession} and checks
+ * that every recorded outcome, timeout and final score is what the rules
+ * produce. Used to audit disputed scores and to reproduce bugs.
+ *
+ * <pre>java temple.SessionReplay [log files or directories...]</pre>
+ */
+public final class SessionReplay {
+    private static final int MAX_REPORTED = 10;
+
+    private final HashMap<Long, GameSession> live = new HashMap<>();
+    private final ArrayDeque<GameSession> pool = new ArrayDeque<>();
+    private final List<String> reported = new ArrayList<>();
+    private long events;
+    private long sessions;
+    private long mismatches;
+    private long orphans;
+    private SecretRange range;
+    private boolean legacy;
+
+    public static void main(String[] args) throws IOException {
+        List<Path> files = new ArrayList<>();
+        if (args.length == 0) {
+            files.addAll(List.of(SessionRecorder.logFiles(SessionRecorder.defaultDirectory())));
+        }
+        for (String arg : args) {
+            Path p = Path.of(arg);
+            files.addAll(Files.isDirectory(p) ? List.of(SessionRecorder.logFiles(p)) : List.of(p));
+        }
+
+        SessionReplay replay = new SessionReplay();
+        long started = System.nanoTime();
+        for (Path file : files) {
+            replay.replay(file);
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+        System.out.printf("files=%d events=%d sessions=%d in %.3fs (%.0f events/s)%n",
+                files.size(), replay.events, replay.sessions, seconds, replay.events / seconds);
+        System.out.printf("mismatches=%d orphanEvents=%d unfinished=%d%n",
+                replay.mismatches, replay.orphans, replay.live.size());
+        replay.reported.forEach(System.out::println);
+    }
+
+    public void replay(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < SessionRecorder.LEGACY_HEADER_BYTES) {
+                return;
+            }
+            MappedByteBuffer log = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            log.order(ByteOrder.LITTLE_ENDIAN);
+            int version = log.getInt(4);
+            int header = SessionRecorder.headerBytes(version);
+            if (log.getInt(0) != SessionRecorder.MAGIC || header < 0 || size < header) {
+                throw new IOException("Not a session log: " + file);
+            }
+            legacy = version == SessionRecorder.LEGACY_VERSION;
+            range = legacy ? SecretRange.CLASSIC : new SecretRange(log.getLong(16), log.getLong(24));
+            int end = (int) (size - (size - header) % SessionRecorder.RECORD_BYTES);
+            for (int offset = header; offset < end; offset += SessionRecorder.RECORD_BYTES) {
+                apply(log, offset);
+            }
+        }
+    }
+
+    private void apply(MappedByteBuffer log, int offset) {
+        events++;
+        long id = log.getLong(offset);
+        long nanos = log.getLong(offset + 8);
+        long payload = log.getLong(offset + 16);
+        int value = log.getInt(offset + 24);
+        byte type = log.get(offset + 28);
+        int difficulty = log.get(offset + 29);
+        int outcome = log.get(offset + 30);
+
+        if (type == SessionRecorder.START) {
+            GameSession session = pool.isEmpty() ? new GameSession() : pool.pop();
+            if (legacy) {
+                session.startWithSecret(Difficulty.values()[difficulty], range, legacySecret(payload), nanos);
+            } else {
+                session.start(Difficulty.values()[difficulty], range, payload, nanos);
+            }
+            GameSession abandoned = live.put(id, session);
+            if (abandoned != null) {
+                pool.push(abandoned);
+            }
+            sessions++;
+            return;
+        }
+
+        GameSession session = live.get(id);
+        if (session == null) {
+            orphans++;
+            return;
+        }
+        switch (type) {
+            case SessionRecorder.GUESS -> {
+                GameSession.Outcome replayed = session.guess(payload, nanos);
+                if (replayed.ordinal() != outcome) {
+                    mismatch(id, "offering " + payload + " recorded " + GameSession.Outcome.values()[outcome] + " but replays as " + replayed);
+                }
+            }
+            case SessionRecorder.TIMEOUT -> {
+                // A suspended game times out only when it was left parked too long.
+                boolean expired = session.state() == GameSession.State.SUSPENDED
+                        ? session.expireSuspended(nanos)
+                        : session.expire(nanos);
+                if (!expired && session.state() != GameSession.State.TIMED_OUT) {
+                    mismatch(id, "recorded a timeout before the deadline");
+                }
+            }
+            case SessionRecorder.SUSPEND -> {
+                if (!session.suspend(nanos) || session.suspendedElapsedNanos() != payload) {
+                    mismatch(id, "recorded a suspension the rules refuse");
+                }
+            }
+            case SessionRecorder.RESUME -> {
+                if (!session.resume(nanos)) {
+                    mismatch(id, "recorded resuming a game that was not suspended");
+                }
+            }
+            case SessionRecorder.END -> {
+                if (session.state().ordinal() != outcome || session.score() != value) {
+                    mismatch(id, "recorded " + GameSession.State.values()[outcome] + " score " + value
+                            + " but replays as " + session.state() + " score " + session.score());
+                }
+                live.remove(id);
+                pool.push(session);
+            }
+            default -> mismatch(id, "unknown event type " + type);
+        }
+    }
+
+    public long events() {
+        return events;
+    }
+
+    public long sessions() {
+        return sessions;
+    }
+
+    public long mismatches() {
+        return mismatches;
+    }
+
+    /** The first few mismatches, described. */
+    public List<String> reported() {
+        return reported;
+    }
+
+    // Version 1 dealt classic secrets from a java.util.Random seeded per game.
+    private static long legacySecret(long seed) {
+        return new Random(seed).nextInt(GameSession.MAX_NUMBER - GameSession.MIN_NUMBER + 1) + GameSession.MIN_NUMBER;
+    }
+
+    private void mismatch(long id, String detail) {
+        mismatches++;
+        if (reported.size() < MAX_REPORTED) {
+            reported.add("session " + Long.toHexString(id) + ": " + detail);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package temple;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Plays sessions headlessly, one task per session, to load-test the rules
+ * without AWT. Runs on virtual threads when the JVM provides them and on a
+ * fixed pool of platform threads otherwise. Each session's choices come from
+ * its own seed, drawn in order on the submitting thread, so a run under
+ * {@code -Dtemple.seed=n} plays the same games whatever the scheduling.
+ *
+ * <pre>java -Djava.awt.headless=true temple.Simulation [sessions] [inFlight]</pre>
+ */
+public final class Simulation {
+    private static final int DEFAULT_SESSIONS = 1_000_000;
+    private static final int DEFAULT_IN_FLIGHT = 10_000;
+    private static final long SECOND_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final LongAdder wins = new LongAdder();
+    private final LongAdder losses = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder guesses = new LongAdder();
+
+    public static void main(String[] args) throws InterruptedException {
+        int sessions = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_SESSIONS;
+        int inFlight = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_IN_FLIGHT;
+        new Simulation().run(sessions, inFlight);
+    }
+
+    public void run(int sessions, int inFlight) throws InterruptedException {
+        ExecutorService executor = newExecutor();
+        Semaphore permits = new Semaphore(inFlight);
+        CountDownLatch done = new CountDownLatch(sessions);
+
+        long started = System.nanoTime();
+        for (int i = 0; i < sessions; i++) {
+            permits.acquire();
+            long seed = Seeds.next();
+            executor.execute(() -> {
+                try {
+                    playOne(new GameSession(), new SplittableRandom(seed));
+                } finally {
+                    permits.release();
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        long elapsed = System.nanoTime() - started;
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+
+        double seconds = elapsed / 1e9;
+        System.out.printf("sessions=%d in %.2fs (%.0f sessions/s, %.0f guesses/s)%n",
+                sessions, seconds, sessions / seconds, guesses.sum() / seconds);
+        System.out.printf("won=%d lost=%d timedOut=%d%n", wins.sum(), losses.sum(), timeouts.sum());
+    }
+
+    // An explorer who narrows the range after each whisper and hesitates a few
+    // seconds between offerings, so every ending is exercised.
+    private void playOne(GameSession session, SplittableRandom random) {
+        Difficulty[] difficulties = Difficulty.values();
+        // Simulated time: the clock only moves when the explorer hesitates.
+        long now = 0;
+        SecretRange range = SecretRange.configured();
+        session.start(difficulties[random.nextInt(difficulties.length)], range, random.nextLong(), now);
+
+        long low = range.min();
+        long high = range.max();
+        while (session.isPlaying()) {
+            now += random.nextInt(20) * SECOND_NANOS;
+            if (session.expire(now)) {
+                break;
+            }
+            long guess = SecretRange.pick(low, high, random.nextLong());
+            guesses.increment();
+            switch (session.guess(guess, now)) {
+                case TOO_LOW -> low = guess + 1;
+                case TOO_HIGH -> high = guess - 1;
+                default -> { }
+            }
+        }
+
+        switch (session.state()) {
+            case WON -> wins.increment();
+            case LOST -> losses.increment();
+            case TIMED_OUT -> timeouts.increment();
+            default -> { }
+        }
+    }
+
+    // Virtual threads arrived after the release this game targets, so look the
+    // factory up reflectively and fall back to one platform thread per core.
+    static ExecutorService newExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        }
+    }
+}
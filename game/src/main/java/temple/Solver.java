@@ -0,0 +1,20 @@
+package temple;
+
+/**
+ * A bot that plays the games in a {@link SessionBatch}. A solver keeps its
+ * per-game state in arrays indexed by slot, so one instance plays every slot
+ * of one batch. Outcomes arrive as {@link GameSession.Outcome} ordinals.
+ * Not thread-safe; each thread needs its own solver.
+ */
+public interface Solver {
+    String name();
+
+    /** A new game has started in {@code slot} with a secret in {@code min..max}. */
+    void begin(int slot, long min, long max);
+
+    /** The next offering for the game in {@code slot}. */
+    long next(int slot);
+
+    /** The temple's answer to {@code offering}. */
+    void observe(int slot, long offering, byte outcome);
+}
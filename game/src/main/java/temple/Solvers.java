@@ -0,0 +1,133 @@
+package temple;
+
+import java.util.SplittableRandom;
+
+/** The stock {@link Solver} bots. */
+public final class Solvers {
+    /** The stock bots by name, for harnesses that field several of them. */
+    public enum Kind {
+        BINARY_SEARCH, RANDOMIZED, ADVERSARIAL;
+
+        public Solver create(int capacity, long seed) {
+            return switch (this) {
+                case BINARY_SEARCH -> binarySearch(capacity);
+                case RANDOMIZED -> randomized(capacity, seed);
+                case ADVERSARIAL -> adversarial(capacity, seed);
+            };
+        }
+    }
+
+    private Solvers() {
+    }
+
+    /** Always offers the middle of the numbers the whispers still allow. */
+    public static Solver binarySearch(int capacity) {
+        return new Interval("binary search", capacity) {
+            @Override
+            public long next(int slot) {
+                return low[slot] + ((high[slot] - low[slot]) >>> 1);
+            }
+        };
+    }
+
+    /** Offers a uniformly random number the whispers still allow. */
+    public static Solver randomized(int capacity, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        return new Interval("randomized", capacity) {
+            @Override
+            public long next(int slot) {
+                return SecretRange.pick(low[slot], high[slot], random.nextLong());
+            }
+        };
+    }
+
+    /**
+     * A player who tries to game the rules: offerings outside the range (which
+     * must not cost a torch), numbers the whispers already ruled out, and
+     * repeats, mixed with binary search. Fair rules never let it beat
+     * {@link #binarySearch}.
+     */
+    public static Solver adversarial(int capacity, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        return new Interval("adversarial", capacity) {
+            @Override
+            public long next(int slot) {
+                long lo = low[slot];
+                long hi = high[slot];
+                switch (random.nextInt(4)) {
+                    case 0 -> {
+                        if (min[slot] != Long.MIN_VALUE) {
+                            return min[slot] - 1;
+                        }
+                        if (max[slot] != Long.MAX_VALUE) {
+                            return max[slot] + 1;
+                        }
+                    }
+                    case 1 -> {
+                        if (lo > min[slot]) {
+                            return SecretRange.pick(min[slot], lo - 1, random.nextLong());
+                        }
+                        if (hi < max[slot]) {
+                            return SecretRange.pick(hi + 1, max[slot], random.nextLong());
+                        }
+                    }
+                    case 2 -> {
+                        if (last[slot] != NONE) {
+                            return last[slot];
+                        }
+                    }
+                    default -> { }
+                }
+                return lo + ((hi - lo) >>> 1);
+            }
+        };
+    }
+
+    // Tracks the numbers still consistent with every whisper in each slot.
+    private abstract static class Interval implements Solver {
+        static final long NONE = Long.MIN_VALUE;
+
+        private final String name;
+        final long[] min;
+        final long[] max;
+        final long[] low;
+        final long[] high;
+        final long[] last;
+
+        Interval(String name, int capacity) {
+            this.name = name;
+            min = new long[capacity];
+            max = new long[capacity];
+            low = new long[capacity];
+            high = new long[capacity];
+            last = new long[capacity];
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public void begin(int slot, long min, long max) {
+            this.min[slot] = min;
+            this.max[slot] = max;
+            low[slot] = min;
+            high[slot] = max;
+            last[slot] = NONE;
+        }
+
+        @Override
+        public void observe(int slot, long offering, byte outcome) {
+            // Ruled-out offerings are answered too; never widen the interval again.
+            if (outcome == SessionBatch.TOO_LOW) {
+                low[slot] = Math.max(low[slot], offering + 1);
+            } else if (outcome == SessionBatch.TOO_HIGH) {
+                high[slot] = Math.min(high[slot], offering - 1);
+            }
+            if (outcome != SessionBatch.INVALID) {
+                last[slot] = offering;
+            }
+        }
+    }
+}
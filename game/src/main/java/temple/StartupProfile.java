@@ -0,0 +1,55 @@
+package temple;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records how long startup phases take, measured from JVM launch. Enabled with
+ * {@code -Dtemple.startup.profile=true}; the report goes to stderr once the
+ * first frame has been painted. With {@code -Dtemple.startup.exitAfterFirstFrame=true}
+ * the game quits right after that frame, which makes it usable as an AppCDS
+ * training run.
+ */
+public final class StartupProfile {
+    private static final boolean ENABLED = Boolean.getBoolean("temple.startup.profile");
+    private static final boolean EXIT_AFTER_FIRST_FRAME = Boolean.getBoolean("temple.startup.exitAfterFirstFrame");
+    private static final long LAUNCH_MILLIS = ProcessHandle.current().info().startInstant()
+            .map(Instant::toEpochMilli).orElse(System.currentTimeMillis());
+
+    private static final List<String> phases = new ArrayList<>();
+    private static boolean firstFrameSeen;
+
+    private StartupProfile() {
+    }
+
+    public static boolean exitAfterFirstFrame() {
+        return EXIT_AFTER_FIRST_FRAME;
+    }
+
+    public static synchronized void mark(String phase) {
+        if (ENABLED) {
+            phases.add(String.format("%-22s %5d ms", phase, sinceLaunch()));
+        }
+    }
+
+    /** Returns true the first time it is called, when it also prints the report. */
+    public static synchronized boolean firstFrame() {
+        if (firstFrameSeen) {
+            return false;
+        }
+        firstFrameSeen = true;
+        if (ENABLED) {
+            mark("first frame");
+            System.err.println("Startup profile (since JVM launch):");
+            for (String phase : phases) {
+                System.err.println("  " + phase);
+            }
+        }
+        return true;
+    }
+
+    private static long sinceLaunch() {
+        return System.currentTimeMillis() - LAUNCH_MILLIS;
+    }
+}
@@ -0,0 +1,170 @@
+package temple;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Insets;
+import java.awt.RenderingHints;
+import java.awt.font.TextLayout;
+
+import javax.swing.JComponent;
+
+/**
+ * Centered, wrapped paragraphs painted straight from {@link TextLayout}s held
+ * in a {@link TextLayoutCache}: the plain-text replacement for the
+ * {@code <html><center>} labels, which parsed a fresh HTML view tree every
+ * time their text changed. Lines wrap at the component's width or at
+ * {@link #setMeasure a measure} of so many ems, whichever is narrower; the
+ * preferred height is that of the lines as painted, so a narrower width asks
+ * for more height rather than clipping. Paragraphs with digits in them, such
+ * as a score or the sacred number, change from game to game; they are kept
+ * in a small cache of the block's own, so they neither grow the shared cache
+ * nor push the fixed story text out of it.
+ * EDT only.
+ */
+public final class TextBlock extends JComponent {
+    private static final long serialVersionUID = 1L;
+    private static final String[] NONE = {};
+    private static final int DEFAULT_MEASURE = 40;
+    private static final int NUMBERED_CAPACITY = 32;
+
+    private final TextLayoutCache cache;
+    private TextLayoutCache numbered; // created with the first paragraph that has a number
+    private String[] paragraphs = NONE;
+    private int measure = DEFAULT_MEASURE;
+
+    public TextBlock(String... paragraphs) {
+        this(TextLayoutCache.shared(), paragraphs);
+    }
+
+    public TextBlock(TextLayoutCache cache, String... paragraphs) {
+        this.cache = cache;
+        setText(paragraphs);
+    }
+
+    /** Replaces the text; each paragraph starts on a new line. */
+    public void setText(String... paragraphs) {
+        Dimension before = getFont() == null ? null : getPreferredSize();
+        this.paragraphs = paragraphs;
+        // New numbers in a message of the same size need no relayout.
+        if (before == null || !before.equals(getPreferredSize())) {
+            revalidate();
+        }
+        repaint();
+    }
+
+    /** Longest line, in ems of the current font. */
+    public void setMeasure(int ems) {
+        measure = ems;
+        revalidate();
+        repaint();
+    }
+
+    @Override
+    public void setFont(Font font) {
+        super.setFont(font);
+        revalidate();
+        repaint();
+    }
+
+    // A new width can change how many lines the text takes, and so the height it needs.
+    @Override
+    public void setBounds(int x, int y, int width, int height) {
+        boolean rewrap = width != getWidth() && getFont() != null && !isPreferredSizeSet();
+        int before = rewrap ? linesHeight(wrapWidth()) : 0;
+        super.setBounds(x, y, width, height);
+        if (rewrap && linesHeight(wrapWidth()) != before) {
+            revalidate();
+        }
+    }
+
+    /**
+     * As wide as the text wrapped at the measure, so a block can grow when its
+     * text does, and as tall as the lines {@link #paintComponent} will draw.
+     */
+    @Override
+    public Dimension getPreferredSize() {
+        if (isPreferredSizeSet() || getFont() == null) {
+            return super.getPreferredSize();
+        }
+        Insets insets = getInsets();
+        int width = 0;
+        for (String text : paragraphs) {
+            width = Math.max(width, layout(text, getFont(), measureWidth()).width());
+        }
+        return new Dimension(width + insets.left + insets.right,
+                linesHeight(wrapWidth()) + insets.top + insets.bottom);
+    }
+
+    private int linesHeight(int wrap) {
+        int height = 0;
+        for (String text : paragraphs) {
+            height += layout(text, getFont(), wrap).height();
+        }
+        return height;
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        if (isOpaque()) {
+            g.setColor(getBackground());
+            g.fillRect(0, 0, getWidth(), getHeight());
+        }
+        Font font = getFont();
+        if (font == null) {
+            return;
+        }
+        Graphics2D g2 = (Graphics2D) g;
+        g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        Color fg = getForeground();
+        g2.setColor(fg == null ? Color.BLACK : fg);
+
+        Insets insets = getInsets();
+        int inner = getWidth() - insets.left - insets.right;
+        int wrap = wrapWidth();
+        float y = insets.top;
+        for (String text : paragraphs) {
+            TextLayoutCache.Paragraph p = layout(text, font, wrap);
+            for (int i = 0; i < p.lineCount(); i++) {
+                TextLayout line = p.line(i);
+                y += line.getAscent();
+                float x = insets.left + (inner - line.getVisibleAdvance()) / 2;
+                line.draw(g2, x, y);
+                y += line.getDescent() + line.getLeading();
+            }
+        }
+    }
+
+    private TextLayoutCache.Paragraph layout(String text, Font font, int wrap) {
+        if (!hasDigit(text)) {
+            return cache.layout(text, font, wrap);
+        }
+        if (numbered == null) {
+            numbered = new TextLayoutCache(NUMBERED_CAPACITY);
+        }
+        return numbered.layout(text, font, wrap);
+    }
+
+    private static boolean hasDigit(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // The width lines are broken at: the measure, or less once laid out narrower.
+    private int wrapWidth() {
+        Insets insets = getInsets();
+        int inner = getWidth() - insets.left - insets.right;
+        return inner > 0 ? Math.min(measureWidth(), inner) : measureWidth();
+    }
+
+    private int measureWidth() {
+        return measure * getFont().getSize();
+    }
+}
@@ -0,0 +1,153 @@
+package temple;
+
+import java.awt.Font;
+import java.awt.font.FontRenderContext;
+import java.awt.font.LineBreakMeasurer;
+import java.awt.font.TextAttribute;
+import java.awt.font.TextLayout;
+import java.text.AttributedCharacterIterator;
+import java.text.AttributedString;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Paragraphs already broken into lines, keyed by text, font and wrap width,
+ * with least-recently-used eviction. The story and outcome messages never
+ * change, so after the first game showing one is a map lookup. Text that
+ * carries a number would miss on every new value; {@link TextBlock} gives
+ * such text a small cache of its own instead of this one. Layout times are
+ * recorded separately for hits and misses. EDT only.
+ */
+public final class TextLayoutCache {
+    private static final int DEFAULT_CAPACITY = 256;
+    private static final TextLayoutCache SHARED = new TextLayoutCache(DEFAULT_CAPACITY);
+    private static final FontRenderContext FRC = new FontRenderContext(null, true, true);
+
+    private final Map<Key, Paragraph> paragraphs;
+    private final Key probe = new Key();
+    private final LatencyHistogram hitTimes = new LatencyHistogram();
+    private final LatencyHistogram missTimes = new LatencyHistogram();
+
+    public TextLayoutCache(int capacity) {
+        this.paragraphs = new LinkedHashMap<>(capacity * 2, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Paragraph> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    public static TextLayoutCache shared() {
+        return SHARED;
+    }
+
+    /** The lines of {@code text} in {@code font}, wrapped to {@code width} pixels. */
+    public Paragraph layout(String text, Font font, int width) {
+        long started = System.nanoTime();
+        int wrap = Math.max(1, width);
+        probe.set(text, font, wrap);
+        Paragraph paragraph = paragraphs.get(probe);
+        boolean hit = paragraph != null;
+        if (!hit) {
+            paragraph = Paragraph.wrap(text, font, wrap);
+            paragraphs.put(new Key().set(text, font, wrap), paragraph);
+        }
+        (hit ? hitTimes : missTimes).record(System.nanoTime() - started);
+        return paragraph;
+    }
+
+    public int size() {
+        return paragraphs.size();
+    }
+
+    public void clear() {
+        paragraphs.clear();
+    }
+
+    public String summary() {
+        return hitTimes.summary("text layout (cached)") + "; " + missTimes.summary("text layout (measured)");
+    }
+
+    /** Wrapped lines of one paragraph and the size they need. */
+    public static final class Paragraph {
+        private final TextLayout[] lines;
+        private final int width;
+        private final int height;
+
+        private Paragraph(TextLayout[] lines, int width, int height) {
+            this.lines = lines;
+            this.width = width;
+            this.height = height;
+        }
+
+        static Paragraph wrap(String text, Font font, int wrapWidth) {
+            if (text.isEmpty()) {
+                return new Paragraph(new TextLayout[0], 0, 0);
+            }
+            AttributedString attributed = new AttributedString(text);
+            attributed.addAttribute(TextAttribute.FONT, font);
+            AttributedCharacterIterator chars = attributed.getIterator();
+            LineBreakMeasurer measurer = new LineBreakMeasurer(chars, FRC);
+            TextLayout[] lines = new TextLayout[4];
+            int count = 0;
+            float widest = 0;
+            float height = 0;
+            while (measurer.getPosition() < chars.getEndIndex()) {
+                TextLayout line = measurer.nextLayout(wrapWidth);
+                if (count == lines.length) {
+                    lines = Arrays.copyOf(lines, count * 2);
+                }
+                lines[count++] = line;
+                widest = Math.max(widest, line.getVisibleAdvance());
+                height += line.getAscent() + line.getDescent() + line.getLeading();
+            }
+            return new Paragraph(Arrays.copyOf(lines, count), (int) Math.ceil(widest), (int) Math.ceil(height));
+        }
+
+        public int lineCount() {
+            return lines.length;
+        }
+
+        public TextLayout line(int i) {
+            return lines[i];
+        }
+
+        /** Width of the widest line. */
+        public int width() {
+            return width;
+        }
+
+        public int height() {
+            return height;
+        }
+    }
+
+    // Mutable so a lookup can reuse one probe instead of allocating a key.
+    private static final class Key {
+        String text;
+        Font font;
+        int width;
+
+        Key set(String text, Font font, int width) {
+            this.text = text;
+            this.font = font;
+            this.width = width;
+            return this;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key k = (Key) o;
+            return width == k.width && text.equals(k.text) && font.equals(k.font);
+        }
+
+        @Override
+        public int hashCode() {
+            return (31 * text.hashCode() + font.hashCode()) * 31 + width;
+        }
+    }
+}
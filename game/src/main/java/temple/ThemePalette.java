@@ -0,0 +1,54 @@
+package temple;
+
+import java.awt.Color;
+
+/** An immutable set of theme colors. The two palettes are built once and shared. */
+public final class ThemePalette {
+    public static final ThemePalette LIGHT = new ThemePalette(
+            new Color(251, 248, 240), // Light Sand
+            new Color(139, 69, 19),   // Saddle Brown
+            Color.WHITE,
+            Color.BLACK,
+            new Color(205, 133, 63)); // Peru
+    public static final ThemePalette DARK = new ThemePalette(
+            new Color(45, 45, 45),
+            Color.LIGHT_GRAY,
+            new Color(60, 60, 60),
+            Color.LIGHT_GRAY,
+            new Color(205, 133, 63));
+    public static final Color WARNING = Color.RED;
+
+    private final Color background;
+    private final Color text;
+    private final Color inputBackground;
+    private final Color inputText;
+    private final Color progress;
+
+    private ThemePalette(Color background, Color text, Color inputBackground, Color inputText, Color progress) {
+        this.background = background;
+        this.text = text;
+        this.inputBackground = inputBackground;
+        this.inputText = inputText;
+        this.progress = progress;
+    }
+
+    public Color background() {
+        return background;
+    }
+
+    public Color text() {
+        return text;
+    }
+
+    public Color inputBackground() {
+        return inputBackground;
+    }
+
+    public Color inputText() {
+        return inputText;
+    }
+
+    public Color progress() {
+        return progress;
+    }
+}
@@ -0,0 +1,116 @@
+package temple;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.swing.BorderFactory;
+import javax.swing.JComponent;
+
+/**
+ * Knows which components take which theme colors, grouped by card. Switching
+ * palettes recolors only the card on screen; the other cards are marked stale
+ * and recolored when they are next shown. The cost of a switch is therefore
+ * bounded by one card, however many cards exist, and Swing's RepaintManager
+ * folds the resulting repaints into a single paint pass. EDT only.
+ */
+public final class ThemeRegistry {
+    private static final int FRAME_THICKNESS = 2;
+
+    public enum Role {
+        /** Panels: background only. */
+        SURFACE,
+        /** Labels: foreground only. */
+        TEXT,
+        /** Text fields and combo boxes. */
+        INPUT,
+        /** Text fields framed by a line in the text color, as well as the input colors. */
+        FRAMED_INPUT,
+        /** Progress bars and the HUD's time bar: bar color only. */
+        PROGRESS
+    }
+
+    private static final class Group {
+        final List<JComponent> components = new ArrayList<>();
+        final List<Role> roles = new ArrayList<>();
+        int appliedVersion;
+    }
+
+    private final Map<String, Group> groups = new HashMap<>();
+    private ThemePalette palette;
+    private int version;
+    private String visibleGroup;
+
+    public ThemeRegistry(ThemePalette palette, String visibleGroup) {
+        this.palette = palette;
+        this.visibleGroup = visibleGroup;
+    }
+
+    /** Adds {@code component} to {@code group} and paints it with the current palette. */
+    public <C extends JComponent> C register(String group, C component, Role role) {
+        Group g = groups.get(group);
+        if (g == null) {
+            g = new Group();
+            g.appliedVersion = version;
+            groups.put(group, g);
+        }
+        g.components.add(component);
+        g.roles.add(role);
+        apply(component, role);
+        return component;
+    }
+
+    public void switchTo(ThemePalette newPalette) {
+        if (newPalette == palette) {
+            return;
+        }
+        palette = newPalette;
+        version++;
+        refresh(visibleGroup);
+    }
+
+    /** Call before a card becomes visible so it catches up with any switch it missed. */
+    public void onShow(String group) {
+        visibleGroup = group;
+        refresh(group);
+    }
+
+    public ThemePalette palette() {
+        return palette;
+    }
+
+    private void refresh(String group) {
+        Group g = groups.get(group);
+        if (g == null || g.appliedVersion == version) {
+            return;
+        }
+        for (int i = 0; i < g.components.size(); i++) {
+            apply(g.components.get(i), g.roles.get(i));
+        }
+        g.appliedVersion = version;
+    }
+
+    private void apply(JComponent component, Role role) {
+        switch (role) {
+            case SURFACE -> component.setBackground(palette.background());
+            case TEXT -> component.setForeground(palette.text());
+            case INPUT -> {
+                component.setBackground(palette.inputBackground());
+                component.setForeground(palette.inputText());
+            }
+            case FRAMED_INPUT -> {
+                component.setBackground(palette.inputBackground());
+                component.setForeground(palette.inputText());
+                component.setBorder(BorderFactory.createLineBorder(palette.text(), FRAME_THICKNESS));
+            }
+            case PROGRESS -> {
+                if (component instanceof GameHud hud) {
+                    hud.setBarColor(palette.progress());
+                } else {
+                    component.setForeground(palette.progress());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package temple;
+
+import java.io.Closeable;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A hashed timing wheel for session deadlines. Deadlines are absolute
+ * {@link System#nanoTime()} values, so a busy caller never makes them drift;
+ * the wheel only decides when, within one tick, a callback fires. Scheduling
+ * and cancelling are O(1) from any thread, and one worker thread expires any
+ * number of timeouts at a cost proportional to the ones actually due.
+ *
+ * <p>Callbacks run on the wheel thread and must hand real work elsewhere
+ * (the EDT, a selector) rather than block it.
+ */
+public final class TimingWheel implements Closeable {
+    private static final int PENDING = 0;
+    private static final int CANCELLED = 1;
+    private static final int EXPIRED = 2;
+
+    private final long tickNanos;
+    private final int mask;
+    private final Bucket[] wheel;
+    private final Queue<Timeout> added = new ConcurrentLinkedQueue<>();
+    private final Queue<Timeout> cancelled = new ConcurrentLinkedQueue<>();
+    private final Thread worker;
+    private final long startNanos;
+    private volatile boolean running = true;
+    private long tick;
+
+    public TimingWheel(long tickDuration, TimeUnit unit, int wheelSize, String threadName) {
+        if (tickDuration <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("tickDuration=" + tickDuration + " wheelSize=" + wheelSize);
+        }
+        int size = Integer.highestOneBit(wheelSize - 1) << 1;
+        this.tickNanos = unit.toNanos(tickDuration);
+        this.mask = Math.max(1, size) - 1;
+        this.wheel = new Bucket[mask + 1];
+        for (int i = 0; i < wheel.length; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.startNanos = System.nanoTime();
+        this.worker = new Thread(this::work, threadName);
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /** Runs {@code task} on the wheel thread once {@link System#nanoTime()} reaches {@code deadlineNanos}. */
+    public Timeout schedule(long deadlineNanos, Runnable task) {
+        Timeout timeout = new Timeout(this, deadlineNanos, task);
+        added.add(timeout);
+        return timeout;
+    }
+
+    /** Where tick 0 begins; tick n ends at {@code startNanos() + (n + 1) * tick duration}. */
+    long startNanos() {
+        return startNanos;
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(worker);
+    }
+
+    private void work() {
+        while (running) {
+            long tickDeadline = startNanos + (tick + 1) * tickNanos;
+            long sleep;
+            while (running && (sleep = tickDeadline - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(this, sleep);
+            }
+            purgeCancelled();
+            transferAdded();
+            wheel[(int) (tick & mask)].expire(tickDeadline);
+            tick++;
+        }
+    }
+
+    private void transferAdded() {
+        // Bound the work per tick so a flood of scheduling can't starve expiry.
+        for (int i = 0; i < 100_000; i++) {
+            Timeout timeout = added.poll();
+            if (timeout == null) {
+                return;
+            }
+            if (timeout.state.get() != PENDING) {
+                continue;
+            }
+            long due = Math.max(0, timeout.deadlineNanos - startNanos) / tickNanos;
+            timeout.rounds = (due - tick) / wheel.length;
+            long slot = Math.max(due, tick);
+            wheel[(int) (slot & mask)].add(timeout);
+        }
+    }
+
+    private void purgeCancelled() {
+        Timeout timeout;
+        while ((timeout = cancelled.poll()) != null) {
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+            }
+        }
+    }
+
+    public static final class Timeout {
+        private final TimingWheel owner;
+        private final long deadlineNanos;
+        private final Runnable task;
+        private final AtomicInteger state = new AtomicInteger(PENDING);
+        private long rounds;
+        private Bucket bucket;
+        private Timeout prev;
+        private Timeout next;
+
+        private Timeout(TimingWheel owner, long deadlineNanos, Runnable task) {
+            this.owner = owner;
+            this.deadlineNanos = deadlineNanos;
+            this.task = task;
+        }
+
+        /** Returns false if the task has already run or been cancelled. */
+        public boolean cancel() {
+            if (!state.compareAndSet(PENDING, CANCELLED)) {
+                return false;
+            }
+            owner.cancelled.add(this);
+            return true;
+        }
+
+        public long deadlineNanos() {
+            return deadlineNanos;
+        }
+    }
+
+    // Intrusive doubly-linked list, touched only by the wheel thread.
+    private static final class Bucket {
+        private Timeout head;
+        private Timeout tail;
+
+        void add(Timeout t) {
+            t.bucket = this;
+            t.prev = tail;
+            t.next = null;
+            if (tail == null) {
+                head = t;
+            } else {
+                tail.next = t;
+            }
+            tail = t;
+        }
+
+        void remove(Timeout t) {
+            if (t.prev != null) {
+                t.prev.next = t.next;
+            } else {
+                head = t.next;
+            }
+            if (t.next != null) {
+                t.next.prev = t.prev;
+            } else {
+                tail = t.prev;
+            }
+            t.prev = null;
+            t.next = null;
+            t.bucket = null;
+        }
+
+        void expire(long tickDeadline) {
+            Timeout t = head;
+            while (t != null) {
+                Timeout next = t.next;
+                // Differences, not raw values: nanoTime may be negative or wrap.
+                if (t.rounds <= 0 && t.deadlineNanos - tickDeadline <= 0) {
+                    remove(t);
+                    if (t.state.compareAndSet(PENDING, EXPIRED)) {
+                        try {
+                            t.task.run();
+                        } catch (RuntimeException e) {
+                            System.err.println("Timeout task failed: " + e);
+                        }
+                    }
+                } else if (t.state.get() == CANCELLED) {
+                    remove(t);
+                } else {
+                    t.rounds--;
+                }
+                t = next;
+            }
+        }
+    }
+}
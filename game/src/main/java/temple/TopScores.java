@@ -0,0 +1,142 @@
+package temple;
+
+import java.util.Arrays;
+
+/**
+ * A replicated Hall of Explorers: the best {@code capacity} scores from every
+ * kiosk, as a state-based CRDT. Each score is an entry tagged with the node
+ * that earned it and that node's sequence number, so the same game merged
+ * twice is recognised rather than counted again. Entries are totally ordered
+ * by score (highest first), then node, then sequence; a state is the top
+ * {@code capacity} of every entry it has seen. Merging keeps the top of the
+ * union, which is commutative, associative and idempotent, so replicas that
+ * have seen the same entries hold the same state whatever order they saw them in.
+ * Thread-safe: the gossip thread merges while the EDT adds and reads.
+ */
+public final class TopScores {
+    private final int[] scores;
+    private final long[] nodes;
+    private final int[] seqs;
+    private int size;
+    private long digest;
+    private boolean digestStale;
+
+    public TopScores(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity=" + capacity);
+        }
+        scores = new int[capacity];
+        nodes = new long[capacity];
+        seqs = new int[capacity];
+    }
+
+    /** Adds one entry; returns whether it made the hall and was new. */
+    public synchronized boolean add(int score, long node, int seq) {
+        if (size == scores.length && !before(score, node, seq, size - 1)) {
+            return false;
+        }
+        int at = 0;
+        while (at < size && before(scores[at], nodes[at], seqs[at], score, node, seq)) {
+            at++;
+        }
+        if (at < size && scores[at] == score && nodes[at] == node && seqs[at] == seq) {
+            return false;
+        }
+        int moved = Math.min(size, scores.length - 1) - at;
+        System.arraycopy(scores, at, scores, at + 1, moved);
+        System.arraycopy(nodes, at, nodes, at + 1, moved);
+        System.arraycopy(seqs, at, seqs, at + 1, moved);
+        scores[at] = score;
+        nodes[at] = node;
+        seqs[at] = seq;
+        size = Math.min(size + 1, scores.length);
+        digestStale = true;
+        return true;
+    }
+
+    /** Merges every entry of {@code other}; returns whether this state changed. */
+    public boolean merge(TopScores other) {
+        int[] s;
+        long[] n;
+        int[] q;
+        int count;
+        synchronized (other) {
+            count = other.size;
+            s = other.scores.clone();
+            n = other.nodes.clone();
+            q = other.seqs.clone();
+        }
+        boolean changed = false;
+        for (int i = 0; i < count; i++) {
+            changed |= add(s[i], n[i], q[i]);
+        }
+        return changed;
+    }
+
+    // True if the candidate entry sorts before the one at index i.
+    private boolean before(int score, long node, int seq, int i) {
+        return before(score, node, seq, scores[i], nodes[i], seqs[i]);
+    }
+
+    private static boolean before(int score, long node, int seq, int otherScore, long otherNode, int otherSeq) {
+        if (score != otherScore) {
+            return score > otherScore;
+        }
+        if (node != otherNode) {
+            return node < otherNode;
+        }
+        return seq < otherSeq;
+    }
+
+    /**
+     * A hash of the whole state. Replicas with equal digests almost certainly
+     * hold the same hall, so gossip compares digests before sending entries.
+     */
+    public synchronized long digest() {
+        if (digestStale) {
+            long h = size;
+            for (int i = 0; i < size; i++) {
+                h = SecretRange.mix(h ^ scores[i]);
+                h = SecretRange.mix(h ^ nodes[i]);
+                h = SecretRange.mix(h ^ seqs[i]);
+            }
+            digest = h;
+            digestStale = false;
+        }
+        return digest;
+    }
+
+    /** The lowest score in a full hall, below which nothing can enter; -1 while there is room. */
+    public synchronized int floor() {
+        return size < scores.length ? -1 : scores[size - 1];
+    }
+
+    /** Best scores, highest first. */
+    public synchronized int[] topScores() {
+        return Arrays.copyOf(scores, size);
+    }
+
+    public synchronized int best() {
+        return size == 0 ? 0 : scores[0];
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return scores.length;
+    }
+
+    /** Visits the entries scoring at least {@code minScore}, highest first. */
+    public synchronized void forEach(int minScore, EntryVisitor visitor) {
+        for (int i = 0; i < size && scores[i] >= minScore; i++) {
+            visitor.visit(scores[i], nodes[i], seqs[i]);
+        }
+    }
+
+    @FunctionalInterface
+    public interface EntryVisitor {
+        void visit(int score, long node, int seq);
+    }
+}
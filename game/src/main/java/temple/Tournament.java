@@ -0,0 +1,305 @@
+package temple;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+
+import temple.Solvers.Kind;
+
+/**
+ * A single-elimination tournament between bot explorers. Each match is both
+ * players riddling the same set of secrets, and the higher total treasure
+ * goes through; a round's matches are independent, so they are split
+ * recursively across a work-stealing pool. Every game's score lands in a
+ * {@link ScoreAggregator} and the merged hall is printed with the standings.
+ * Players field the stock {@link Solvers} in turn and think for their own
+ * pace of simulated seconds between offerings. Uses {@code -Dtemple.range}
+ * like the game; {@code -Dtemple.seed} replays the same tournament.
+ *
+ * <pre>java temple.Tournament [players] [gamesPerMatch] [threads] [difficulty]</pre>
+ */
+public final class Tournament {
+    private static final int LEAF_MATCHES = 8;
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+    private static final long MIN_THINK_NANOS = TimeUnit.MILLISECONDS.toNanos(500);
+    private static final long MAX_THINK_NANOS = TimeUnit.SECONDS.toNanos(4);
+
+    private final SecretRange range;
+    private final Difficulty difficulty;
+    private final int gamesPerMatch;
+    private final ScoreAggregator scores = new ScoreAggregator(10, GameSession.MAX_SCORE);
+
+    public Tournament(SecretRange range, Difficulty difficulty, int gamesPerMatch) {
+        this.range = range;
+        this.difficulty = difficulty;
+        this.gamesPerMatch = gamesPerMatch;
+    }
+
+    public static void main(String[] args) {
+        int players = args.length > 0 ? Integer.parseInt(args[0]) : 4096;
+        int gamesPerMatch = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        Difficulty difficulty = args.length > 3 ? Difficulty.valueOf(args[3]) : Difficulty.MEDIUM;
+
+        Tournament tournament = new Tournament(SecretRange.configured(), difficulty, gamesPerMatch);
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            Player[] standings = tournament.run(entrants(players, Seeds.next()), Seeds.next(), pool);
+            tournament.report(standings);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /** Players in seeding order, each with a bot and a thinking pace. */
+    public static Player[] entrants(int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        Kind[] kinds = Kind.values();
+        Player[] players = new Player[count];
+        for (int i = 0; i < count; i++) {
+            long think = MIN_THINK_NANOS + (long) (random.nextDouble() * (MAX_THINK_NANOS - MIN_THINK_NANOS));
+            players[i] = new Player(i + 1, kinds[i % kinds.length], think, random.nextLong());
+        }
+        return players;
+    }
+
+    /**
+     * Plays the bracket to the end and returns every player, champion first,
+     * then by the round they reached and their total treasure. Brackets that
+     * are not a power of two give the last entrant of an odd round a bye.
+     */
+    public Player[] run(Player[] players, long seed, ForkJoinPool pool) {
+        Player[] entrants = players.clone();
+        int round = 0;
+        while (entrants.length > 1) {
+            round++;
+            Player[] winners = new Player[(entrants.length + 1) / 2];
+            if (entrants.length % 2 == 1) {
+                winners[winners.length - 1] = entrants[entrants.length - 1];
+            }
+            long roundSeed = SecretRange.mix(seed + round * GOLDEN_GAMMA);
+            long started = System.nanoTime();
+            pool.invoke(new RoundTask(entrants, winners, 0, entrants.length / 2, roundSeed));
+            double seconds = (System.nanoTime() - started) / 1e9;
+            long games = (long) (entrants.length / 2) * 2 * gamesPerMatch;
+            System.out.printf("round %2d: %,7d matches, %,10d games in %6.3fs (%,.0f games/s)%n",
+                    round, entrants.length / 2, games, seconds, games / seconds);
+            for (Player winner : winners) {
+                winner.roundsWon++;
+            }
+            entrants = winners;
+        }
+
+        Player[] standings = players.clone();
+        Arrays.sort(standings, Comparator.comparingInt((Player p) -> -p.roundsWon)
+                .thenComparingLong(p -> -p.treasure)
+                .thenComparingInt(p -> p.id));
+        return standings;
+    }
+
+    /** Every game's score, merged from the threads that played them. */
+    public Leaderboard hall() {
+        return scores.merged();
+    }
+
+    private void report(Player[] standings) {
+        System.out.printf("champion: %s%n", standings[0]);
+        for (int i = 0; i < Math.min(10, standings.length); i++) {
+            System.out.printf("%3d. %s%n", i + 1, standings[i]);
+        }
+        for (Kind kind : Kind.values()) {
+            long players = 0;
+            long rounds = 0;
+            for (Player p : standings) {
+                if (p.kind == kind) {
+                    players++;
+                    rounds += p.roundsWon;
+                }
+            }
+            System.out.printf("%-14s %,6d players, %.2f rounds won on average%n",
+                    kind.create(1, 0).name(), players, players == 0 ? 0 : (double) rounds / players);
+        }
+        Leaderboard hall = hall();
+        System.out.printf("hall: %,d games, best %s%n", hall.size(), Arrays.toString(hall.topScores()));
+    }
+
+    // Both players of a match meet the same secrets, so only play decides it.
+    private Player play(Table table, Player a, Player b, long matchSeed) {
+        Result ra = table.play(a, matchSeed);
+        long aTreasure = ra.treasure;
+        int aWins = ra.wins;
+        int aTorches = ra.torches;
+        Result rb = table.play(b, matchSeed);
+        int order = Long.compare(aTreasure, rb.treasure);
+        if (order == 0) {
+            order = Integer.compare(aWins, rb.wins);
+        }
+        if (order == 0) {
+            order = Integer.compare(rb.torches, aTorches);
+        }
+        return order > 0 || (order == 0 && a.id < b.id) ? a : b;
+    }
+
+    private final class RoundTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final Player[] entrants;
+        private final Player[] winners;
+        private final int from;
+        private final int to;
+        private final long roundSeed;
+
+        RoundTask(Player[] entrants, Player[] winners, int from, int to, long roundSeed) {
+            this.entrants = entrants;
+            this.winners = winners;
+            this.from = from;
+            this.to = to;
+            this.roundSeed = roundSeed;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= LEAF_MATCHES) {
+                Table table = new Table(gamesPerMatch, scores.local());
+                for (int m = from; m < to; m++) {
+                    winners[m] = play(table, entrants[2 * m], entrants[2 * m + 1], roundSeed + m * GOLDEN_GAMMA);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new RoundTask(entrants, winners, from, mid, roundSeed),
+                    new RoundTask(entrants, winners, mid, to, roundSeed));
+        }
+    }
+
+    // One leaf task's scratch space; a player's games are dealt into it all at once.
+    private final class Table {
+        final SessionBatch batch;
+        final long[] guesses;
+        final long[] now;
+        final byte[] outcomes;
+        final Leaderboard board;
+        final Result result = new Result();
+
+        Table(int games, Leaderboard board) {
+            this.batch = new SessionBatch(games, range);
+            this.guesses = new long[games];
+            this.now = new long[games];
+            this.outcomes = new byte[games];
+            this.board = board;
+        }
+
+        Result play(Player player, long matchSeed) {
+            long botSeed = SecretRange.mix(player.seed ^ matchSeed);
+            Solver solver = player.kind.create(gamesPerMatch, botSeed);
+            SplittableRandom pace = new SplittableRandom(botSeed);
+            for (int g = 0; g < gamesPerMatch; g++) {
+                batch.start(g, difficulty, matchSeed + g, 0);
+                now[g] = 0;
+                solver.begin(g, range.min(), range.max());
+            }
+            result.clear();
+            int active = gamesPerMatch;
+            while (active > 0) {
+                for (int g = 0; g < gamesPerMatch; g++) {
+                    if (batch.isPlaying(g)) {
+                        guesses[g] = solver.next(g);
+                        now[g] += (long) (pace.nextDouble() * 2 * player.thinkNanos);
+                    }
+                }
+                batch.evaluate(0, gamesPerMatch, guesses, now, outcomes);
+                for (int g = 0; g < gamesPerMatch; g++) {
+                    if (outcomes[g] == SessionBatch.NOT_PLAYING) {
+                        continue;
+                    }
+                    solver.observe(g, guesses[g], outcomes[g]);
+                    if (!batch.isPlaying(g)) {
+                        active--;
+                        result.add(batch, g);
+                        board.add(batch.score(g));
+                    }
+                }
+            }
+            player.games += gamesPerMatch;
+            player.wins += result.wins;
+            player.torches += result.torches;
+            player.treasure += result.treasure;
+            return result;
+        }
+    }
+
+    private static final class Result {
+        long treasure;
+        int wins;
+        int torches;
+
+        void clear() {
+            treasure = 0;
+            wins = 0;
+            torches = 0;
+        }
+
+        void add(SessionBatch batch, int slot) {
+            treasure += batch.score(slot);
+            torches += batch.torchesUsed(slot);
+            if (batch.state(slot) == GameSession.State.WON) {
+                wins++;
+            }
+        }
+    }
+
+    /**
+     * One entrant and their running totals. A player is in at most one match
+     * per round, so only the task playing that match writes to it.
+     */
+    public static final class Player {
+        private final int id;
+        private final Kind kind;
+        private final long thinkNanos;
+        private final long seed;
+        private int roundsWon;
+        private long games;
+        private long wins;
+        private long torches;
+        private long treasure;
+
+        Player(int id, Kind kind, long thinkNanos, long seed) {
+            this.id = id;
+            this.kind = kind;
+            this.thinkNanos = thinkNanos;
+            this.seed = seed;
+        }
+
+        public int id() {
+            return id;
+        }
+
+        public Kind kind() {
+            return kind;
+        }
+
+        public int roundsWon() {
+            return roundsWon;
+        }
+
+        public long games() {
+            return games;
+        }
+
+        public long wins() {
+            return wins;
+        }
+
+        public long treasure() {
+            return treasure;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("#%d %s (%.1fs pace): %d rounds, %d/%d games won, %d torches, treasure %d",
+                    id, kind.create(1, 0).name(), thinkNanos / 1e9, roundsWon, wins, games, torches, treasure);
+        }
+    }
+}
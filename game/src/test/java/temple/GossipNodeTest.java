@@ -0,0 +1,213 @@
+package temple;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class GossipNodeTest {
+    private static final long SETTLE_NANOS = TimeUnit.SECONDS.toNanos(20);
+
+    private final List<GossipNode> nodes = new ArrayList<>();
+    private final List<Thread> threads = new ArrayList<>();
+
+    @TempDir
+    Path dir;
+
+    @AfterEach
+    void stopNodes() throws InterruptedException {
+        for (GossipNode node : nodes) {
+            node.close();
+        }
+        for (Thread thread : threads) {
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    @Test
+    void varintsAndZigzagRoundTrip() {
+        ByteBuffer buf = ByteBuffer.allocate(16);
+        for (long value : new long[] {0, 1, 127, 128, 300, 1L << 35, Long.MAX_VALUE, -1, Long.MIN_VALUE}) {
+            buf.clear();
+            GossipNode.putVarint(buf, value);
+            buf.flip();
+            assertEquals(value, GossipNode.getVarint(buf));
+            assertEquals(0, buf.remaining());
+        }
+        for (int value : new int[] {0, 1, -1, 63, -64, 600, Integer.MAX_VALUE, Integer.MIN_VALUE}) {
+            long encoded = GossipNode.zigzag(value);
+            assertTrue(encoded >= 0);
+            assertEquals(value, GossipNode.unzigzag(encoded));
+        }
+        // Small magnitudes of either sign stay one byte long.
+        assertEquals(1, GossipNode.zigzag(-1));
+        assertEquals(2, GossipNode.zigzag(1));
+    }
+
+    @Test
+    void nodesConvergeOnTheSameHall() throws IOException, InterruptedException {
+        int[] ports = freePorts(4);
+        for (int i = 0; i < ports.length; i++) {
+            start(ports[i], ports);
+        }
+        int score = 0;
+        for (GossipNode node : nodes) {
+            for (int i = 0; i < 6; i++) {
+                node.record(score++ * 7 % 601);
+            }
+        }
+        awaitSameHall(GossipNode.HALL_SIZE);
+    }
+
+    @Test
+    void malformedDatagramsAreDropped() throws IOException, InterruptedException {
+        int[] ports = freePorts(2);
+        GossipNode a = start(ports[0], ports);
+        GossipNode b = start(ports[1], ports);
+        try (DatagramChannel attacker = DatagramChannel.open()) {
+            InetSocketAddress target = new InetSocketAddress("127.0.0.1", ports[0]);
+            byte[][] garbage = {
+                {3, 1, 0, 0, 0, 0, 0, 0, 0, 7, 1, 5, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x0F, 0},
+                {3, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF,
+                        (byte) 0xFF, (byte) 0xFF, 0x01},
+                {3, 0, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x0F},
+                {3, 0, (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80,
+                        (byte) 0x80, (byte) 0x80, (byte) 0x80, 0x01},
+                {1, 2},
+            };
+            for (byte[] datagram : garbage) {
+                attacker.send(ByteBuffer.wrap(datagram), target);
+            }
+        }
+        a.record(450);
+        b.record(320);
+        awaitSameHall(2);
+    }
+
+    @Test
+    void unresolvedPeerDoesNotStopGossip() throws IOException, InterruptedException {
+        int[] ports = freePorts(2);
+        GossipNode a = start(ports[0], ports, InetSocketAddress.createUnresolved("kiosk.invalid", 9));
+        GossipNode b = start(ports[1], ports);
+        a.record(300);
+        b.record(200);
+        awaitSameHall(2);
+        b.record(100);
+        awaitSameHall(3);
+
+        a.close();
+        threads.get(0).join(TimeUnit.SECONDS.toMillis(5));
+        assertTrue(a.sendFailures(1) > 0, a.summary());
+        assertEquals(0, a.sendFailures(0), a.summary());
+    }
+
+    @Test
+    void restartedNodeSeedsTheSameEntries() throws IOException, InterruptedException {
+        long id = GossipNode.nodeId(dir);
+        assertEquals(id, GossipNode.nodeId(dir));
+
+        int[] ports = freePorts(2);
+        GossipNode before = start(ports[0], ports, id);
+        GossipNode peer = start(ports[1], ports);
+        before.seed(500, 2);
+        before.record(500);
+        before.record(120);
+        peer.record(610);
+        awaitSameHall(5);
+        long digest = peer.hall().digest();
+
+        // The kiosk comes back with its history now holding all four of its wins.
+        before.close();
+        threads.get(0).join(TimeUnit.SECONDS.toMillis(5));
+        nodes.remove(0);
+        threads.remove(0);
+        GossipNode after = start(ports[0], ports, GossipNode.nodeId(dir));
+        after.seed(120, 1);
+        after.seed(500, 3);
+        after.seed(500, 3);
+        awaitSameHall(5);
+        assertEquals(digest, after.hall().digest());
+
+        // Its next win is a new copy, not one of the seeded ones.
+        after.record(500);
+        awaitSameHall(6);
+        assertNotEquals(digest, peer.hall().digest());
+    }
+
+    private GossipNode start(int port, int[] ports, InetSocketAddress... extraPeers) throws IOException {
+        return start(port, ports, Seeds.next(), extraPeers);
+    }
+
+    private GossipNode start(int port, int[] ports, long id, InetSocketAddress... extraPeers) throws IOException {
+        List<InetSocketAddress> peers = new ArrayList<>();
+        for (int p : ports) {
+            if (p != port) {
+                peers.add(new InetSocketAddress("127.0.0.1", p));
+            }
+        }
+        peers.addAll(List.of(extraPeers));
+        GossipNode node = new GossipNode(new InetSocketAddress("127.0.0.1", port),
+                peers.toArray(new InetSocketAddress[0]), GossipNode.HALL_SIZE, id, () -> { });
+        Thread thread = new Thread(node, "gossip-" + port);
+        thread.setDaemon(true);
+        thread.start();
+        nodes.add(node);
+        threads.add(thread);
+        return node;
+    }
+
+    private void awaitSameHall(int size) throws InterruptedException {
+        long deadline = System.nanoTime() + SETTLE_NANOS;
+        while (!sameHall(size) && System.nanoTime() - deadline < 0) {
+            Thread.sleep(50);
+        }
+        TopScores first = nodes.get(0).hall();
+        for (GossipNode node : nodes) {
+            assertEquals(size, node.hall().size(), node.summary());
+            assertEquals(first.digest(), node.hall().digest(), node.summary());
+            assertArrayEquals(first.topScores(), node.hall().topScores());
+        }
+    }
+
+    private boolean sameHall(int size) {
+        long digest = nodes.get(0).hall().digest();
+        for (GossipNode node : nodes) {
+            if (node.hall().size() != size || node.hall().digest() != digest) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Ports the OS just handed out; the nodes bind them again straight away.
+    private static int[] freePorts(int count) throws IOException {
+        DatagramChannel[] probes = new DatagramChannel[count];
+        int[] ports = new int[count];
+        try {
+            for (int i = 0; i < count; i++) {
+                probes[i] = DatagramChannel.open().bind(new InetSocketAddress("127.0.0.1", 0));
+                ports[i] = ((InetSocketAddress) probes[i].getLocalAddress()).getPort();
+            }
+        } finally {
+            for (DatagramChannel probe : probes) {
+                if (probe != null) {
+                    probe.close();
+                }
+            }
+        }
+        return ports;
+    }
+}
@@ -0,0 +1,42 @@
+package temple;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+    @Test
+    void everyValueFallsWithinItsBucketBound() {
+        long[] values = {0, 1, 15, 16, 17, 31, 32, 1_000, 1_000_000, 1L << 40, (1L << 62) - 1, 1L << 62,
+                (1L << 62) + (1L << 58), Long.MAX_VALUE - 1, Long.MAX_VALUE};
+        for (long value : values) {
+            int index = LatencyHistogram.indexOf(value);
+            assertTrue(value <= LatencyHistogram.upperBoundOf(index), value + " above its bucket");
+            if (index > 0) {
+                assertTrue(value > LatencyHistogram.upperBoundOf(index - 1), value + " below its bucket");
+            }
+        }
+    }
+
+    @Test
+    void topBucketsSaturateInsteadOfWrapping() {
+        assertEquals(Long.MAX_VALUE, LatencyHistogram.upperBoundOf(LatencyHistogram.indexOf(Long.MAX_VALUE)));
+        long previous = 0;
+        for (int i = 0; i < 64 * 16; i++) {
+            long bound = LatencyHistogram.upperBoundOf(i);
+            assertTrue(bound >= previous, "bound of bucket " + i + " went down to " + bound);
+            previous = bound;
+        }
+        assertEquals(Long.MAX_VALUE, previous);
+    }
+
+    @Test
+    void percentileOfHugeSamplesIsTheirMax() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(Long.MAX_VALUE);
+        histogram.record(Long.MAX_VALUE - 5);
+        assertEquals(Long.MAX_VALUE, histogram.percentile(99));
+        assertEquals(Long.MAX_VALUE, histogram.percentile(50));
+    }
+}
@@ -0,0 +1,129 @@
+package temple;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+
+class ParkedSessionStoreTest {
+    private final ParkedSessionStore store = new ParkedSessionStore(SecretRange.CLASSIC, 16);
+
+    @Test
+    void unparkRestoresTheGame() {
+        GameSession session = new GameSession();
+        session.start(Difficulty.MEDIUM, SecretRange.CLASSIC, 7, 100);
+        session.guess(session.secretNumber() == 1 ? 2 : 1, 150);
+        session.suspend(200);
+        long handle = store.park(session, 42, 200);
+
+        GameSession into = new GameSession();
+        assertEquals(42, store.unpark(handle, into));
+        assertEquals(GameSession.State.SUSPENDED, into.state());
+        assertEquals(session.secretNumber(), into.secretNumber());
+        assertEquals(session.attemptsLeft(), into.attemptsLeft());
+        assertEquals(session.suspendedElapsedNanos(), into.suspendedElapsedNanos());
+        assertFalse(store.isParked(handle));
+        assertEquals(ParkedSessionStore.UNKNOWN, store.unpark(handle, into));
+    }
+
+    @Test
+    void oldestGamesExpireFirstAndOnlyBeforeTheCutoff() {
+        long[] handles = new long[5];
+        for (int i = 0; i < handles.length; i++) {
+            handles[i] = store.park(suspended(i, 0), i, 1000 + i);
+        }
+        // A game resumed from the middle must drop out of the expiry order.
+        store.unpark(handles[1], new GameSession());
+
+        GameSession into = new GameSession();
+        assertEquals(0, store.unparkOldest(1003, into));
+        assertEquals(2, store.unparkOldest(1003, into));
+        assertEquals(ParkedSessionStore.UNKNOWN, store.unparkOldest(1003, into));
+        assertTrue(store.isParked(handles[3]));
+        assertEquals(2, store.size());
+
+        assertEquals(3, store.unparkOldest(2000, into));
+        assertEquals(4, store.unparkOldest(2000, into));
+        assertEquals(ParkedSessionStore.UNKNOWN, store.unparkOldest(2000, into));
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void freedRecordsAreReusedWithFreshHandles() {
+        for (int round = 0; round < 3; round++) {
+            long[] handles = new long[16];
+            for (int i = 0; i < handles.length; i++) {
+                handles[i] = store.park(suspended(i, 0), i, round * 100 + i);
+                assertNotEquals(ParkedSessionStore.NO_HANDLE, handles[i]);
+            }
+            assertEquals(ParkedSessionStore.NO_HANDLE, store.park(suspended(99, 0), 99, round * 100 + 50));
+            GameSession into = new GameSession();
+            for (int i = 0; i < handles.length; i++) {
+                assertEquals(i, store.unparkOldest(Long.MAX_VALUE, into));
+                assertFalse(store.isParked(handles[i]));
+            }
+        }
+    }
+
+    @Test
+    void expiredSuspendedGameTimesOut() {
+        GameSession session = suspended(3, 0);
+        long handle = store.park(session, 1, 0);
+        GameSession into = new GameSession();
+        store.unpark(handle, into);
+        assertTrue(into.expireSuspended(5_000));
+        assertEquals(GameSession.State.TIMED_OUT, into.state());
+        assertEquals(0, into.score());
+        assertFalse(into.expireSuspended(6_000));
+    }
+
+    // Seeds' root is fixed when the class loads, so each deal runs in its own JVM.
+    @Test
+    void parkingDoesNotChangeTheSeededDeal() throws IOException, InterruptedException {
+        assertEquals(deal(false), deal(true));
+    }
+
+    private static String deal(boolean park) throws IOException, InterruptedException {
+        Process process = new ProcessBuilder(
+                Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "-Dtemple.seed=42", "-cp", System.getProperty("java.class.path"),
+                SeededDeal.class.getName(), Boolean.toString(park))
+                .redirectErrorStream(true)
+                .start();
+        String out = new String(process.getInputStream().readAllBytes(), StandardCharsets.US_ASCII);
+        assertEquals(0, process.waitFor(), out);
+        return out;
+    }
+
+    /** Deals ten games, parking and resuming each one when asked to. */
+    static final class SeededDeal {
+        public static void main(String[] args) {
+            boolean park = Boolean.parseBoolean(args[0]);
+            ParkedSessionStore store = new ParkedSessionStore(SecretRange.CLASSIC, 4);
+            GameSession session = new GameSession();
+            StringBuilder secrets = new StringBuilder();
+            for (int i = 0; i < 10; i++) {
+                session.start(Difficulty.EASY, SecretRange.CLASSIC, Seeds.next(), 0);
+                secrets.append(session.secretNumber()).append(' ');
+                if (park) {
+                    session.suspend(1);
+                    store.unpark(store.park(session, i, 1), session);
+                }
+            }
+            System.out.println(secrets);
+        }
+    }
+
+    private static GameSession suspended(long seed, long now) {
+        GameSession session = new GameSession();
+        session.start(Difficulty.EASY, SecretRange.CLASSIC, seed, now);
+        session.suspend(now);
+        return session;
+    }
+}
@@ -0,0 +1,207 @@
+package temple;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ScoreStoreTest {
+    private static final int MAX_SCORE = 600;
+    // Layout from ScoreStore: a 16-byte log header, then 16-byte records whose last 4 bytes are the CRC.
+    private static final int HEADER_BYTES = 16;
+    private static final int RECORD_BYTES = 16;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void reopenedStoreHasEveryScore() throws IOException {
+        try (ScoreStore store = ScoreStore.open(dir, MAX_SCORE)) {
+            for (int score : new int[] {100, 250, 250, 600}) {
+                store.append(score);
+            }
+        }
+        try (ScoreStore store = ScoreStore.open(dir, MAX_SCORE)) {
+            long[] counts = counts(store);
+            assertEquals(1, counts[100]);
+            assertEquals(2, counts[250]);
+            assertEquals(1, counts[600]);
+            assertEquals(4, total(counts));
+        }
+    }
+
+    // The mapping lives in the page cache, so an unclosed store (as after kill -9) is already readable.
+    @Test
+    void scoresAreReadableWithoutClose() throws IOException {
+        ScoreStore crashed = ScoreStore.open(dir, MAX_SCORE);
+        for (int i = 0; i < 5; i++) {
+            crashed.append(300 + i);
+        }
+        try (ScoreStore reopened = ScoreStore.open(dir, MAX_SCORE)) {
+            assertEquals(5, total(counts(reopened)));
+        } finally {
+            crashed.close();
+        }
+    }
+
+    @Test
+    void tornFinalRecordIsDroppedAndOverwritten() throws IOException {
+        try (ScoreStore store = ScoreStore.open(dir, MAX_SCORE)) {
+            store.append(10);
+            store.append(20);
+            store.append(30);
+        }
+        // Flip a byte of the third record's score so its checksum no longer matches.
+        corrupt(dir.resolve("scores.log"), HEADER_BYTES + 2 * RECORD_BYTES + 8);
+
+        try (ScoreStore store = ScoreStore.open(dir, MAX_SCORE)) {
+            long[] counts = counts(store);
+            assertEquals(2, total(counts));
+            assertEquals(0, counts[30]);
+            store.append(40);
+        }
+        try (ScoreStore store = ScoreStore.open(dir, MAX_SCORE)) {
+            long[] counts = counts(store);
+            assertEquals(3, total(counts));
+            assertEquals(1, counts[40]);
+        }
+    }
+
+    @Test
+    void recoveryStopsAtTheFirstBadRecord() throws IOException {
+        try (ScoreStore store = ScoreStore.open(dir, MAX_SCORE)) {
+            for (int i = 0; i < 4; i++) {
+                store.append(i);
+            }
+        }
+        corrupt(dir.resolve("scores.log"), HEADER_BYTES + RECORD_BYTES + 12);
+        try (ScoreStore store = ScoreStore.open(dir, MAX_SCORE)) {
+            assertEquals(1, total(counts(store)));
+        }
+    }
+
+    @Test
+    void compactionKeepsEveryScore() throws IOException {
+        try (ScoreStore store = ScoreStore.open(dir, MAX_SCORE, 4)) {
+            for (int i = 0; i < 10; i++) {
+                store.append(i * 10);
+            }
+        }
+        assertTrue(Files.exists(dir.resolve("scores.snap")));
+        try (ScoreStore store = ScoreStore.open(dir, MAX_SCORE, 4)) {
+            long[] counts = counts(store);
+            assertEquals(10, total(counts));
+            for (int i = 0; i < 10; i++) {
+                assertEquals(1, counts[i * 10]);
+            }
+        }
+    }
+
+    // A crash after the snapshot was renamed into place but before the new log generation began.
+    @Test
+    void logAlreadyCoveredBySnapshotIsNotCountedTwice() throws IOException {
+        try (ScoreStore store = ScoreStore.open(dir, MAX_SCORE)) {
+            store.append(1);
+            store.append(2);
+            store.append(3);
+        }
+        Path oldLog = dir.resolve("scores.log.old");
+        Files.copy(dir.resolve("scores.log"), oldLog);
+        try (ScoreStore store = ScoreStore.open(dir, MAX_SCORE)) {
+            store.compact();
+        }
+        Files.move(oldLog, dir.resolve("scores.log"), StandardCopyOption.REPLACE_EXISTING);
+
+        try (ScoreStore store = ScoreStore.open(dir, MAX_SCORE)) {
+            long[] counts = counts(store);
+            assertEquals(3, total(counts));
+            store.append(4);
+        }
+        try (ScoreStore store = ScoreStore.open(dir, MAX_SCORE)) {
+            assertEquals(4, total(counts(store)));
+        }
+    }
+
+    @Test
+    void unreadableLogHeaderStartsAFreshGeneration() throws IOException {
+        Files.write(dir.resolve("scores.log"), new byte[] {1, 2, 3, 4, 5});
+        try (ScoreStore store = ScoreStore.open(dir, MAX_SCORE)) {
+            assertEquals(0, total(counts(store)));
+            store.append(7);
+        }
+        try (ScoreStore store = ScoreStore.open(dir, MAX_SCORE)) {
+            assertEquals(1, counts(store)[7]);
+        }
+    }
+
+    // Losing the compacted counts is bad; refusing to open ever again would be worse.
+    @Test
+    void corruptSnapshotIsSetAsideAndTheLogReplayed() throws IOException {
+        try (ScoreStore store = ScoreStore.open(dir, MAX_SCORE)) {
+            store.append(5);
+            store.compact();
+            store.append(6);
+            store.append(7);
+        }
+        corrupt(dir.resolve("scores.snap"), 20);
+
+        try (ScoreStore store = ScoreStore.open(dir, MAX_SCORE)) {
+            long[] counts = counts(store);
+            assertEquals(2, total(counts));
+            assertEquals(1, counts[6]);
+            assertEquals(1, counts[7]);
+            store.append(8);
+            store.compact();
+        }
+        assertTrue(Files.exists(dir.resolve("scores.snap.corrupt")));
+        try (ScoreStore store = ScoreStore.open(dir, MAX_SCORE)) {
+            assertEquals(3, total(counts(store)));
+        }
+    }
+
+    @Test
+    void appendAfterCloseIsAnIOException() throws IOException {
+        ScoreStore store = ScoreStore.open(dir, MAX_SCORE);
+        store.append(1);
+        store.close();
+        store.close();
+        assertThrows(IOException.class, () -> store.append(2));
+        assertThrows(IOException.class, store::compact);
+        try (ScoreStore reopened = ScoreStore.open(dir, MAX_SCORE)) {
+            assertEquals(1, total(counts(reopened)));
+        }
+    }
+
+    private static void corrupt(Path file, long position) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer b = ByteBuffer.allocate(1);
+            channel.read(b, position);
+            b.put(0, (byte) (b.get(0) ^ 0x5A)).rewind();
+            channel.write(b, position);
+        }
+    }
+
+    private static long[] counts(ScoreStore store) {
+        long[] counts = new long[MAX_SCORE + 1];
+        store.forEachScore((score, count) -> counts[score] += count);
+        return counts;
+    }
+
+    private static long total(long[] counts) {
+        long total = 0;
+        for (long c : counts) {
+            total += c;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,114 @@
+package temple;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+// SessionBatch is the struct-of-arrays twin of GameSession; both must referee every offering alike.
+class SessionBatchTest {
+    private static final int GAMES = 512;
+    private static final long SECOND_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void classicRangeMatchesGameSession() {
+        crossCheck(SecretRange.CLASSIC, 1);
+    }
+
+    @Test
+    void fullRangeMatchesGameSession() {
+        crossCheck(SecretRange.FULL, 2);
+    }
+
+    @Test
+    void signedRangeMatchesGameSession() {
+        crossCheck(new SecretRange(-1000, 1000), 3);
+    }
+
+    @Test
+    void offeringOnTheDeadlineTimesOut() {
+        SecretRange range = SecretRange.CLASSIC;
+        long deadline = Difficulty.HARD.timeLimit() * SECOND_NANOS;
+        SessionBatch batch = new SessionBatch(2, range);
+        batch.start(0, Difficulty.HARD, 7, 0);
+        batch.start(1, Difficulty.HARD, 7, 0);
+        long secret = batch.secret(0);
+        long[] guesses = {secret, secret};
+        long[] now = {deadline - 1, deadline};
+        byte[] outcomes = new byte[2];
+        batch.evaluate(0, 2, guesses, now, outcomes);
+
+        for (int slot = 0; slot < 2; slot++) {
+            GameSession session = new GameSession();
+            session.start(Difficulty.HARD, range, 7, 0);
+            assertEquals(session.guess(guesses[slot], now[slot]).ordinal(), outcomes[slot]);
+            assertEquals(session.state(), batch.state(slot));
+            assertEquals(session.score(), batch.score(slot));
+        }
+    }
+
+    // Plays GAMES games on both, offering the same guesses at the same instants until every game ends.
+    private static void crossCheck(SecretRange range, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        Difficulty[] difficulties = Difficulty.values();
+        SessionBatch batch = new SessionBatch(GAMES, range);
+        GameSession[] sessions = new GameSession[GAMES];
+        long[] now = new long[GAMES];
+        for (int g = 0; g < GAMES; g++) {
+            Difficulty difficulty = difficulties[g % difficulties.length];
+            long gameSeed = random.nextLong();
+            now[g] = random.nextLong(1L << 40);
+            batch.start(g, difficulty, gameSeed, now[g]);
+            sessions[g] = new GameSession();
+            sessions[g].start(difficulty, range, gameSeed, now[g]);
+            assertEquals(sessions[g].secretNumber(), batch.secret(g));
+        }
+
+        long[] guesses = new long[GAMES];
+        byte[] outcomes = new byte[GAMES];
+        int playing = GAMES;
+        while (playing > 0) {
+            for (int g = 0; g < GAMES; g++) {
+                guesses[g] = offering(random, range, batch.secret(g));
+                // Up to 12 s between offerings, so the shorter limits sometimes run out.
+                now[g] += random.nextLong(12 * SECOND_NANOS);
+            }
+            batch.evaluate(0, GAMES, guesses, now, outcomes);
+            for (int g = 0; g < GAMES; g++) {
+                GameSession session = sessions[g];
+                boolean wasPlaying = session.isPlaying();
+                GameSession.Outcome expected = session.guess(guesses[g], now[g]);
+                assertEquals(expected.ordinal(), outcomes[g], "outcome of game " + g);
+                assertEquals(session.state(), batch.state(g), "state of game " + g);
+                assertEquals(session.score(), batch.score(g), "score of game " + g);
+                assertEquals(session.torchesUsed(), batch.torchesUsed(g), "torches of game " + g);
+                assertEquals(session.attemptsLeft(), batch.attemptsLeft(g), "attempts of game " + g);
+                if (wasPlaying && !session.isPlaying()) {
+                    playing--;
+                }
+            }
+        }
+    }
+
+    private static long offering(SplittableRandom random, SecretRange range, long secret) {
+        int kind = random.nextInt(10);
+        if (kind == 0) {
+            return secret;
+        }
+        if (kind == 1 && range.min() != Long.MIN_VALUE) {
+            return range.min() - 1;
+        }
+        if (kind == 2 && range.max() != Long.MAX_VALUE) {
+            return range.max() + 1;
+        }
+        if (kind == 3) {
+            return secret == range.max() ? secret - 1 : secret + 1;
+        }
+        if (range.max() - range.min() + 1 <= 0) {
+            return random.nextLong();
+        }
+        return range.min() + random.nextLong(range.max() - range.min() + 1);
+    }
+}
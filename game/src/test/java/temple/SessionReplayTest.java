@@ -0,0 +1,86 @@
+package temple;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+// Everything the server records must replay cleanly, including games it times out while parked.
+class SessionReplayTest {
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void parkedGameTimedOutByTheServerReplaysCleanly() throws IOException {
+        SessionRecorder recorder = new SessionRecorder(dir, false);
+        ParkedSessionStore parked = new ParkedSessionStore(SecretRange.CLASSIC, 4);
+        GameSession session = new GameSession();
+
+        long id = recorder.recordStart(Difficulty.MEDIUM, SecretRange.CLASSIC, 99, 0);
+        session.start(Difficulty.MEDIUM, SecretRange.CLASSIC, 99, 0);
+        long guess = session.secretNumber() == 1 ? 2 : 1;
+        recorder.recordGuess(id, 2 * SECOND, session, guess, session.guess(guess, 2 * SECOND));
+        session.suspend(5 * SECOND);
+        recorder.recordSuspend(id, 5 * SECOND, session);
+        parked.park(session, id, 5 * SECOND);
+
+        // What GameServer.expireParked does once the game has waited past its TTL.
+        long now = 5 * SECOND + TimeUnit.HOURS.toNanos(2);
+        GameSession expired = new GameSession();
+        assertEquals(id, parked.unparkOldest(now - TimeUnit.HOURS.toNanos(1), expired));
+        expired.expireSuspended(now);
+        recorder.recordTimeout(id, now, expired);
+        recorder.recordEnd(id, now, expired);
+
+        wonGame(recorder);
+        recorder.close();
+
+        SessionReplay replay = replay();
+        assertEquals(2, replay.sessions());
+        assertEquals(0, replay.mismatches(), replay.reported().toString());
+    }
+
+    @Test
+    void wrongFinalScoreIsReported() throws IOException {
+        SessionRecorder recorder = new SessionRecorder(dir, false);
+        long id = recorder.recordStart(Difficulty.EASY, SecretRange.CLASSIC, 5, 0);
+        GameSession session = new GameSession();
+        session.start(Difficulty.EASY, SecretRange.CLASSIC, 5, 0);
+        recorder.recordGuess(id, SECOND, session, session.secretNumber(), session.guess(session.secretNumber(), SECOND));
+        // Claim the win came a second sooner than it did, for ten more treasure.
+        GameSession forged = new GameSession();
+        forged.start(Difficulty.EASY, SecretRange.CLASSIC, 5, 0);
+        forged.guess(forged.secretNumber(), 0);
+        recorder.recordEnd(id, SECOND, forged);
+        recorder.close();
+
+        assertEquals(1, replay().mismatches());
+    }
+
+    private static void wonGame(SessionRecorder recorder) {
+        GameSession session = new GameSession();
+        long id = recorder.recordStart(Difficulty.HARD, SecretRange.CLASSIC, 3, 0);
+        session.start(Difficulty.HARD, SecretRange.CLASSIC, 3, 0);
+        session.suspend(SECOND);
+        recorder.recordSuspend(id, SECOND, session);
+        session.resume(10 * SECOND);
+        recorder.recordResume(id, 10 * SECOND, session);
+        long secret = session.secretNumber();
+        recorder.recordGuess(id, 12 * SECOND, session, secret, session.guess(secret, 12 * SECOND));
+        recorder.recordEnd(id, 12 * SECOND, session);
+    }
+
+    private SessionReplay replay() throws IOException {
+        SessionReplay replay = new SessionReplay();
+        for (Path file : SessionRecorder.logFiles(dir)) {
+            replay.replay(file);
+        }
+        return replay;
+    }
+}
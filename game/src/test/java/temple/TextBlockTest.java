@@ -0,0 +1,41 @@
+package temple;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.Font;
+
+import org.junit.jupiter.api.Test;
+
+class TextBlockTest {
+    private static final String STORY = "Deep within the jungle lies a forgotten temple, its treasures guarded by ancient riddles.";
+
+    private final TextLayoutCache shared = new TextLayoutCache(64);
+
+    @Test
+    void numbersDoNotGrowTheSharedCache() {
+        TextBlock block = block();
+        for (int score = 0; score < 500; score += 10) {
+            block.setText(STORY, "You have triumphed! Treasure value: " + score);
+            block.getPreferredSize();
+        }
+        assertEquals(1, shared.size());
+    }
+
+    @Test
+    void narrowBlockAsksForTheHeightOfTheLinesItPaints() {
+        TextBlock block = block();
+        block.setText(STORY);
+        int oneLine = block.getPreferredSize().height;
+        block.setBounds(0, 0, 120, oneLine);
+        int wrapped = block.getPreferredSize().height;
+        assertTrue(wrapped > oneLine, wrapped + " <= " + oneLine);
+        assertEquals(wrapped, shared.layout(STORY, block.getFont(), 120).height());
+    }
+
+    private TextBlock block() {
+        TextBlock block = new TextBlock(shared);
+        block.setFont(new Font(Font.SERIF, Font.PLAIN, 16));
+        return block;
+    }
+}
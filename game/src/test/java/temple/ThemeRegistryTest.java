@@ -0,0 +1,41 @@
+package temple;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.awt.Color;
+
+import javax.swing.JTextField;
+import javax.swing.border.LineBorder;
+
+import org.junit.jupiter.api.Test;
+
+class ThemeRegistryTest {
+    @Test
+    void switchRecolorsTheTimeBarAndTheFieldFrame() {
+        ThemeRegistry theme = new ThemeRegistry(ThemePalette.LIGHT, "Game");
+        GameHud hud = theme.register("Game", new GameHud(), ThemeRegistry.Role.PROGRESS);
+        JTextField field = theme.register("Game", new JTextField(), ThemeRegistry.Role.FRAMED_INPUT);
+        assertEquals(ThemePalette.LIGHT.progress(), hud.barColor());
+        assertEquals(ThemePalette.LIGHT.text(), frame(field));
+
+        theme.switchTo(ThemePalette.DARK);
+        assertEquals(ThemePalette.DARK.progress(), hud.barColor());
+        assertEquals(ThemePalette.DARK.text(), frame(field));
+        assertEquals(ThemePalette.DARK.inputBackground(), field.getBackground());
+    }
+
+    @Test
+    void hiddenCardCatchesUpWhenShown() {
+        ThemeRegistry theme = new ThemeRegistry(ThemePalette.LIGHT, "Welcome");
+        JTextField field = theme.register("Game", new JTextField(), ThemeRegistry.Role.FRAMED_INPUT);
+        theme.switchTo(ThemePalette.DARK);
+        assertEquals(ThemePalette.LIGHT.text(), frame(field));
+
+        theme.onShow("Game");
+        assertEquals(ThemePalette.DARK.text(), frame(field));
+    }
+
+    private static Color frame(JTextField field) {
+        return ((LineBorder) field.getBorder()).getLineColor();
+    }
+}
@@ -0,0 +1,87 @@
+package temple;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class TimingWheelTest {
+    private static final long TICK = TimeUnit.MILLISECONDS.toNanos(5);
+    private static final int SLOTS = 8;
+    // Generous, so a loaded build machine cannot fail the lateness checks.
+    private static final long LATE = TimeUnit.MILLISECONDS.toNanos(500);
+
+    private final TimingWheel wheel = new TimingWheel(TICK, TimeUnit.NANOSECONDS, SLOTS, "timing-wheel-test");
+
+    @AfterEach
+    void close() {
+        wheel.close();
+    }
+
+    @Test
+    void deadlineSeveralTurnsAwayWaitsForItsRound() throws InterruptedException {
+        long deadline = System.nanoTime() + 5 * SLOTS * TICK;
+        AtomicLong firedAt = new AtomicLong();
+        CountDownLatch fired = new CountDownLatch(1);
+        wheel.schedule(deadline, () -> {
+            firedAt.set(System.nanoTime());
+            fired.countDown();
+        });
+        assertTrue(fired.await(5, TimeUnit.SECONDS));
+        assertTrue(firedAt.get() - deadline >= 0, "fired early");
+        assertTrue(firedAt.get() - deadline < LATE, "fired late");
+    }
+
+    @Test
+    void deadlineExactlyOnATickIsNotEarly() throws InterruptedException {
+        long now = System.nanoTime();
+        long tick = (now - wheel.startNanos()) / TICK + 4;
+        long deadline = wheel.startNanos() + tick * TICK;
+        AtomicLong firedAt = new AtomicLong();
+        CountDownLatch fired = new CountDownLatch(1);
+        wheel.schedule(deadline, () -> {
+            firedAt.set(System.nanoTime());
+            fired.countDown();
+        });
+        assertTrue(fired.await(5, TimeUnit.SECONDS));
+        assertTrue(firedAt.get() - deadline >= 0, "fired early");
+        assertTrue(firedAt.get() - deadline < LATE, "fired late");
+    }
+
+    @Test
+    void timeoutCancelledByAnotherDueInTheSameTickNeverRuns() throws InterruptedException {
+        long deadline = System.nanoTime() + 3 * TICK;
+        AtomicInteger ran = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(1);
+        TimingWheel.Timeout[] victim = new TimingWheel.Timeout[1];
+        wheel.schedule(deadline, () -> {
+            ran.incrementAndGet();
+            assertTrue(victim[0].cancel());
+        });
+        victim[0] = wheel.schedule(deadline, () -> ran.addAndGet(100));
+        wheel.schedule(deadline + 4 * TICK, done::countDown);
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(1, ran.get());
+        assertFalse(victim[0].cancel());
+    }
+
+    @Test
+    void cancelledTimeoutDoesNotRun() throws InterruptedException {
+        AtomicInteger ran = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(1);
+        long deadline = System.nanoTime() + 2 * SLOTS * TICK;
+        TimingWheel.Timeout timeout = wheel.schedule(deadline, ran::incrementAndGet);
+        assertTrue(timeout.cancel());
+        wheel.schedule(deadline + 2 * TICK, done::countDown);
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(0, ran.get());
+    }
+}
@@ -0,0 +1,94 @@
+package temple;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class TopScoresTest {
+    @Test
+    void keepsEntriesHighestScoreFirstThenNodeThenSequence() {
+        TopScores hall = new TopScores(8);
+        hall.add(300, 2, 0);
+        hall.add(500, 9, 0);
+        hall.add(300, 1, 1);
+        hall.add(300, 1, 0);
+        hall.add(100, 0, 0);
+
+        List<String> order = new ArrayList<>();
+        hall.forEach(Integer.MIN_VALUE, (score, node, seq) -> order.add(score + "/" + node + "/" + seq));
+        assertEquals(List.of("500/9/0", "300/1/0", "300/1/1", "300/2/0", "100/0/0"), order);
+        assertEquals(500, hall.best());
+        assertEquals(-1, hall.floor());
+    }
+
+    @Test
+    void sameEntryTwiceIsKeptOnce() {
+        TopScores hall = new TopScores(4);
+        assertTrue(hall.add(400, 7, 3));
+        long digest = hall.digest();
+        assertFalse(hall.add(400, 7, 3));
+        assertEquals(1, hall.size());
+        assertEquals(digest, hall.digest());
+        // The same score from another game is a different entry.
+        assertTrue(hall.add(400, 7, 4));
+        assertEquals(2, hall.size());
+    }
+
+    @Test
+    void fullHallDropsTheLowestEntry() {
+        TopScores hall = new TopScores(3);
+        hall.add(200, 1, 0);
+        hall.add(300, 1, 1);
+        hall.add(100, 1, 2);
+        assertEquals(100, hall.floor());
+
+        assertFalse(hall.add(50, 1, 3));
+        assertTrue(hall.add(250, 1, 4));
+        assertArrayEquals(new int[] {300, 250, 200}, hall.topScores());
+        assertEquals(200, hall.floor());
+        // Ties at the floor are broken by node, then sequence.
+        assertFalse(hall.add(200, 2, 0));
+        assertTrue(hall.add(200, 0, 9));
+        assertArrayEquals(new int[] {300, 250, 200}, hall.topScores());
+        List<Long> nodes = new ArrayList<>();
+        hall.forEach(200, (score, node, seq) -> nodes.add(node));
+        assertEquals(List.of(1L, 1L, 0L), nodes);
+    }
+
+    @Test
+    void mergeOrderDoesNotMatter() {
+        Random random = new Random(11);
+        List<long[]> entries = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            entries.add(new long[] {random.nextInt(601), random.nextInt(6), i});
+        }
+        TopScores[] replicas = new TopScores[4];
+        for (int r = 0; r < replicas.length; r++) {
+            // Each replica hears every entry, some twice, in its own order and partly through merges.
+            List<long[]> shuffled = new ArrayList<>(entries);
+            shuffled.addAll(entries.subList(0, 50));
+            Collections.shuffle(shuffled, random);
+            TopScores direct = new TopScores(10);
+            TopScores relayed = new TopScores(10);
+            for (int i = 0; i < shuffled.size(); i++) {
+                long[] e = shuffled.get(i);
+                (i % 3 == 0 ? relayed : direct).add((int) e[0], e[1], (int) e[2]);
+            }
+            direct.merge(relayed);
+            replicas[r] = direct;
+        }
+        for (TopScores replica : replicas) {
+            assertEquals(replicas[0].digest(), replica.digest());
+            assertArrayEquals(replicas[0].topScores(), replica.topScores());
+            assertFalse(replica.merge(replicas[0]));
+        }
+    }
+}